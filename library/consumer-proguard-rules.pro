@@ -0,0 +1,2 @@
+# androidx.tracing is a compile-only dependency, used only when trace sections are enabled
+-dontwarn androidx.tracing.Trace
@@ -0,0 +1,125 @@
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import android.graphics.Rect;
+import android.util.Log;
+import android.view.View;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+
+/**
+ * Per-call cost of the visibility check of {@link AccessibilityNodeProviderImpl},
+ * against the reflective call of the hidden View#isVisibleToUser(Rect) it
+ * used before. The picker is attached to a visible window so that both
+ * checks run through to the visible rect. The results are written to
+ * logcat with the tag below.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AccessibilityVisibilityBenchmark {
+    private static final String TAG = "NumberPickerBenchmark";
+    private static final int WARMUP_ITERATIONS = 10000;
+    private static final int ITERATIONS = 100000;
+
+    private ActivityScenario<BenchmarkActivity> mScenario;
+    private NumberPicker mNumberPicker;
+    private AccessibilityNodeProviderImpl mProvider;
+    private final Rect mRect = new Rect();
+
+    private interface VisibilityCheck {
+        boolean isVisibleToUser(Rect boundsInView) throws Exception;
+    }
+
+    @Before
+    public void setUp() {
+        mScenario = ActivityScenario.launch(BenchmarkActivity.class);
+        mScenario.onActivity(new ActivityScenario.ActivityAction<BenchmarkActivity>() {
+            @Override
+            public void perform(BenchmarkActivity activity) {
+                mNumberPicker = new NumberPicker(activity);
+                activity.setContentView(mNumberPicker);
+            }
+        });
+        // wait for the picker to be laid out
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        mProvider = (AccessibilityNodeProviderImpl) mNumberPicker.getAccessibilityNodeProviderCompat();
+    }
+
+    @After
+    public void tearDown() {
+        mScenario.close();
+    }
+
+    @Test
+    public void direct() throws Exception {
+        measure("direct", new VisibilityCheck() {
+            @Override
+            public boolean isVisibleToUser(Rect boundsInView) {
+                return mProvider.isVisibleToUser(boundsInView);
+            }
+        });
+    }
+
+    @Test
+    public void reflection() throws Exception {
+        final Method method;
+        try {
+            method = View.class.getDeclaredMethod("isVisibleToUser", Rect.class);
+            method.setAccessible(true);
+        } catch (Exception e) {
+            // blocked by the hidden API restrictions
+            assumeNoException(e);
+            return;
+        }
+        measure("reflection", new VisibilityCheck() {
+            @Override
+            public boolean isVisibleToUser(Rect boundsInView) throws Exception {
+                return (Boolean) method.invoke(mNumberPicker, boundsInView);
+            }
+        });
+    }
+
+    private void measure(final String name, final VisibilityCheck check) throws Exception {
+        final Exception[] error = new Exception[1];
+        mScenario.onActivity(new ActivityScenario.ActivityAction<BenchmarkActivity>() {
+            @Override
+            public void perform(BenchmarkActivity activity) {
+                try {
+                    // a check stopping short of the visible rect would not be measured
+                    mRect.set(0, 0, 1, 1);
+                    assertTrue("the picker is not visible", check.isVisibleToUser(mRect));
+
+                    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                        mRect.set(0, 0, 100, 100);
+                        check.isVisibleToUser(mRect);
+                    }
+                    long start = System.nanoTime();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        mRect.set(0, 0, 100, 100);
+                        check.isVisibleToUser(mRect);
+                    }
+                    report(name, System.nanoTime() - start);
+                } catch (Exception e) {
+                    error[0] = e;
+                }
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+    }
+
+    private static void report(String name, long elapsedNanos) {
+        Log.i(TAG, "isVisibleToUser (" + name + "): " + (elapsedNanos / ITERATIONS) + " ns/call");
+    }
+}
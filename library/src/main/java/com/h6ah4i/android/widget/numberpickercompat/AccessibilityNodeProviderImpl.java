@@ -17,9 +17,11 @@
 package com.h6ah4i.android.widget.numberpickercompat;
 
 import android.content.Context;
+import android.graphics.Point;
 import android.graphics.Rect;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.SystemClock;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.ViewParentCompat;
 import androidx.core.view.accessibility.AccessibilityEventCompat;
@@ -28,14 +30,12 @@ import androidx.core.view.accessibility.AccessibilityNodeProviderCompat;
 import androidx.core.view.accessibility.AccessibilityRecordCompat;
 import android.text.TextUtils;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.accessibility.AccessibilityEvent;
-import android.view.accessibility.AccessibilityManager;
 import android.view.accessibility.AccessibilityRecord;
 import android.widget.Button;
 import android.widget.EditText;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -51,15 +51,163 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
 
     private final Rect mTempRect = new Rect();
     private final int[] mTempArray = new int[2];
+    private final Rect mTempVisibleRect = new Rect();
+    private final Point mTempOffset = new Point();
     private int mAccessibilityFocusedView = UNDEFINED;
     private NumberPicker mNumberPicker;
 
+    /**
+     * Node info snapshots indexed by virtual view id + 1, valid as long as
+     * the snapshot key below does not change.
+     */
+    private final AccessibilityNodeInfoCompat[] mNodeSnapshots =
+            new AccessibilityNodeInfoCompat[VIRTUAL_VIEW_ID_DECREMENT + 2];
+    private final InvalidateSnapshotsListener mInvalidateSnapshotsListener =
+            new InvalidateSnapshotsListener();
+    private final AccessibilityEventThrottle mEventThrottle;
+    private boolean mSnapshotsValid;
+    private long mSnapshotValue;
+    private long mSnapshotMinValue;
+    private long mSnapshotMaxValue;
+    private boolean mSnapshotWrapSelectorWheel;
+    private int mSnapshotLabelGeneration;
+    private int mSnapshotLeft;
+    private int mSnapshotTop;
+    private int mSnapshotRight;
+    private int mSnapshotBottom;
+    private int mSnapshotScrollX;
+    private int mSnapshotScrollY;
+    private int mSnapshotScreenX;
+    private int mSnapshotScreenY;
+    private boolean mSnapshotEnabled;
+    private boolean mSnapshotShown;
+    private int mSnapshotAccessibilityFocusedView;
+
     AccessibilityNodeProviderImpl(NumberPicker numberPicker) {
         mNumberPicker = numberPicker;
+        mEventThrottle = new AccessibilityEventThrottle(numberPicker.getAccessibilityEventInterval());
+        if (ViewCompat.isAttachedToWindow(numberPicker)) {
+            onAttachedToWindow();
+        }
+    }
+
+    void onAttachedToWindow() {
+        final ViewTreeObserver observer = mNumberPicker.getViewTreeObserver();
+        observer.addOnGlobalLayoutListener(mInvalidateSnapshotsListener);
+        observer.addOnScrollChangedListener(mInvalidateSnapshotsListener);
+        mSnapshotsValid = false;
+    }
+
+    @SuppressWarnings("deprecation")
+    void onDetachedFromWindow() {
+        final ViewTreeObserver observer = mNumberPicker.getViewTreeObserver();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            observer.removeOnGlobalLayoutListener(mInvalidateSnapshotsListener);
+        } else {
+            observer.removeGlobalOnLayoutListener(mInvalidateSnapshotsListener);
+        }
+        observer.removeOnScrollChangedListener(mInvalidateSnapshotsListener);
+        mSnapshotsValid = false;
     }
 
     @Override
     public AccessibilityNodeInfoCompat createAccessibilityNodeInfo(int virtualViewId) {
+        final int snapshotIndex = virtualViewId + 1;
+        if (snapshotIndex < 0 || snapshotIndex >= mNodeSnapshots.length) {
+            return super.createAccessibilityNodeInfo(virtualViewId);
+        }
+        if (virtualViewId == VIRTUAL_VIEW_ID_INPUT && getInputText().isFocused()) {
+            // the text is being edited, so it does not follow the value
+            return buildAccessibilityNodeInfo(virtualViewId);
+        }
+        validateSnapshots();
+        AccessibilityNodeInfoCompat snapshot = mNodeSnapshots[snapshotIndex];
+        if (snapshot == null) {
+            snapshot = buildAccessibilityNodeInfo(virtualViewId);
+            if (snapshot == null) {
+                return null;
+            }
+            mNodeSnapshots[snapshotIndex] = snapshot;
+        }
+        // the caller recycles the returned node
+        return AccessibilityNodeInfoCompat.obtain(snapshot);
+    }
+
+    /**
+     * Drops the snapshots if anything they depend on has changed since they
+     * were built. The position on screen is keyed too, since translations of
+     * the picker or its ancestors change it without a layout.
+     */
+    private void validateSnapshots() {
+        final NumberPicker picker = mNumberPicker;
+        final long value = picker.getLongValue();
+        final long minValue = picker.getLongMinValue();
+        final long maxValue = picker.getLongMaxValue();
+        final boolean wrapSelectorWheel = picker.getWrapSelectorWheel();
+        final int labelGeneration = picker.getLabelGeneration();
+        final int left = picker.getLeft();
+        final int top = picker.getTop();
+        final int right = picker.getRight();
+        final int bottom = picker.getBottom();
+        final int scrollX = picker.getScrollX();
+        final int scrollY = picker.getScrollY();
+        final int[] locationOnScreen = mTempArray;
+        picker.getLocationOnScreen(locationOnScreen);
+        final int screenX = locationOnScreen[0];
+        final int screenY = locationOnScreen[1];
+        final boolean enabled = picker.isEnabled();
+        // a fade to alpha 0 makes the nodes invisible without a layout
+        final boolean shown = picker.isShown()
+                && picker.getWindowVisibility() == View.VISIBLE
+                && picker.getAlpha() > 0;
+
+        if (mSnapshotsValid
+                && mSnapshotValue == value
+                && mSnapshotMinValue == minValue
+                && mSnapshotMaxValue == maxValue
+                && mSnapshotWrapSelectorWheel == wrapSelectorWheel
+                && mSnapshotLabelGeneration == labelGeneration
+                && mSnapshotLeft == left
+                && mSnapshotTop == top
+                && mSnapshotRight == right
+                && mSnapshotBottom == bottom
+                && mSnapshotScrollX == scrollX
+                && mSnapshotScrollY == scrollY
+                && mSnapshotScreenX == screenX
+                && mSnapshotScreenY == screenY
+                && mSnapshotEnabled == enabled
+                && mSnapshotShown == shown
+                && mSnapshotAccessibilityFocusedView == mAccessibilityFocusedView) {
+            return;
+        }
+
+        final AccessibilityNodeInfoCompat[] snapshots = mNodeSnapshots;
+        for (int i = 0; i < snapshots.length; i++) {
+            if (snapshots[i] != null) {
+                snapshots[i].recycle();
+                snapshots[i] = null;
+            }
+        }
+        mSnapshotsValid = true;
+        mSnapshotValue = value;
+        mSnapshotMinValue = minValue;
+        mSnapshotMaxValue = maxValue;
+        mSnapshotWrapSelectorWheel = wrapSelectorWheel;
+        mSnapshotLabelGeneration = labelGeneration;
+        mSnapshotLeft = left;
+        mSnapshotTop = top;
+        mSnapshotRight = right;
+        mSnapshotBottom = bottom;
+        mSnapshotScrollX = scrollX;
+        mSnapshotScrollY = scrollY;
+        mSnapshotScreenX = screenX;
+        mSnapshotScreenY = screenY;
+        mSnapshotEnabled = enabled;
+        mSnapshotShown = shown;
+        mSnapshotAccessibilityFocusedView = mAccessibilityFocusedView;
+    }
+
+    private AccessibilityNodeInfoCompat buildAccessibilityNodeInfo(int virtualViewId) {
         final int mTop = mNumberPicker.getTop();
         final int mBottom = mNumberPicker.getBottom();
         final int mLeft = mNumberPicker.getLeft();
@@ -90,7 +238,7 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
                         mBottomSelectionDividerBottom - mSelectionDividerHeight,
                         mScrollX + (mRight - mLeft), mScrollY + (mBottom - mTop));
         }
-        return super.createAccessibilityNodeInfo(virtualViewId);
+        return null;
     }
 
     @Override
@@ -144,21 +292,31 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
                         return false;
                     }
                     case AccessibilityNodeInfoCompat.ACTION_SCROLL_FORWARD: {
-                        if (isEnabled()
-                                && (getWrapSelectorWheel() || getValue() < getMaxValue())) {
+                        if (isEnabled() && mNumberPicker.hasNextValue()) {
                             mNumberPicker.changeValueByOne(true);
                             return true;
                         }
                     }
                     return false;
                     case AccessibilityNodeInfoCompat.ACTION_SCROLL_BACKWARD: {
-                        if (isEnabled()
-                                && (getWrapSelectorWheel() || getValue() > getMinValue())) {
+                        if (isEnabled() && mNumberPicker.hasPreviousValue()) {
                             mNumberPicker.changeValueByOne(false);
                             return true;
                         }
                     }
                     return false;
+                    case android.R.id.accessibilityActionSetProgress: {
+                        if (isEnabled() && !mNumberPicker.isUnbounded() && arguments != null
+                                && arguments.containsKey(
+                                AccessibilityNodeInfoCompat.ACTION_ARGUMENT_PROGRESS_VALUE)) {
+                            final float progress = arguments.getFloat(
+                                    AccessibilityNodeInfoCompat.ACTION_ARGUMENT_PROGRESS_VALUE);
+                            // a single change of value, whatever the distance
+                            mNumberPicker.jumpToNearestValue(Math.round((double) progress));
+                            return true;
+                        }
+                    }
+                    return false;
                 }
             }
             break;
@@ -295,6 +453,41 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
     }
 
     public void sendAccessibilityEventForVirtualView(int virtualViewId, int eventType) {
+        if (eventType == AccessibilityEvent.TYPE_VIEW_SELECTED
+                || eventType == AccessibilityEvent.TYPE_VIEW_TEXT_CHANGED) {
+            if (!mEventThrottle.onEvent(virtualViewId, eventType,
+                    mNumberPicker.isScrolling(), SystemClock.uptimeMillis())) {
+                return;
+            }
+        }
+        sendAccessibilityEventForVirtualViewInternal(virtualViewId, eventType);
+    }
+
+    /**
+     * Sends the last event held back while scrolling, so that the settled
+     * value is announced.
+     */
+    void onScrollIdle() {
+        final int eventType = mEventThrottle.takePendingEventType();
+        if (eventType != AccessibilityEventThrottle.NO_PENDING_EVENT) {
+            sendAccessibilityEventForVirtualViewInternal(
+                    mEventThrottle.getPendingVirtualViewId(), eventType);
+        }
+    }
+
+    /**
+     * Drops the event held back while scrolling, e.g. when a new value set
+     * right away supersedes it.
+     */
+    void dropPendingEvent() {
+        mEventThrottle.takePendingEventType();
+    }
+
+    void setEventIntervalMillis(int intervalMillis) {
+        mEventThrottle.setIntervalMillis(intervalMillis);
+    }
+
+    private void sendAccessibilityEventForVirtualViewInternal(int virtualViewId, int eventType) {
         switch (virtualViewId) {
             case VIRTUAL_VIEW_ID_DECREMENT: {
                 if (hasVirtualDecrementButton()) {
@@ -318,8 +511,7 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
     }
 
     private void sendAccessibilityEventForVirtualText(int eventType) {
-        AccessibilityManager accessibilityManager = (AccessibilityManager) getContext().getSystemService(Context.ACCESSIBILITY_SERVICE);
-        if (accessibilityManager.isEnabled()) {
+        if (mNumberPicker.isAccessibilityEnabled()) {
             AccessibilityEvent event = AccessibilityEvent.obtain(eventType);
             getInputText().onInitializeAccessibilityEvent(event);
             getInputText().onPopulateAccessibilityEvent(event);
@@ -334,8 +526,7 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
     }
 
     private void sendAccessibilityEventForVirtualButton(int virtualViewId, int eventType, String text) {
-        AccessibilityManager accessibilityManager = (AccessibilityManager) getContext().getSystemService(Context.ACCESSIBILITY_SERVICE);
-        if (accessibilityManager.isEnabled()) {
+        if (mNumberPicker.isAccessibilityEnabled()) {
             AccessibilityEvent event = AccessibilityEvent.obtain(eventType);
             event.setPackageName(getContext().getPackageName());
             event.setClassName(Button.class.getName());
@@ -477,46 +668,46 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
             info.addAction(AccessibilityNodeInfoCompat.ACTION_CLEAR_ACCESSIBILITY_FOCUS);
         }
         if (isEnabled()) {
-            if (getWrapSelectorWheel() || getValue() < getMaxValue()) {
+            if (mNumberPicker.hasNextValue()) {
                 info.addAction(AccessibilityNodeInfoCompat.ACTION_SCROLL_FORWARD);
             }
-            if (getWrapSelectorWheel() || getValue() > getMinValue()) {
+            if (mNumberPicker.hasPreviousValue()) {
                 info.addAction(AccessibilityNodeInfoCompat.ACTION_SCROLL_BACKWARD);
             }
         }
+        if (!mNumberPicker.isUnbounded()) {
+            info.setRangeInfo(AccessibilityNodeInfoCompat.RangeInfoCompat.obtain(
+                    AccessibilityNodeInfoCompat.RangeInfoCompat.RANGE_TYPE_INT,
+                    mNumberPicker.getLongMinValue(), mNumberPicker.getLongMaxValue(), getValue()));
+            if (isEnabled()) {
+                info.addAction(AccessibilityNodeInfoCompat.AccessibilityActionCompat.ACTION_SET_PROGRESS);
+            }
+        }
         return info;
     }
 
     private boolean hasVirtualDecrementButton() {
-        return getWrapSelectorWheel() || getValue() > getMinValue();
+        return mNumberPicker.hasPreviousValue();
     }
 
     private boolean hasVirtualIncrementButton() {
-        return getWrapSelectorWheel() || getValue() < getMaxValue();
+        return mNumberPicker.hasNextValue();
     }
 
     private String getVirtualDecrementButtonText() {
-        int value = getValue() - 1;
-        if (getWrapSelectorWheel()) {
-            value = mNumberPicker.getWrappedSelectorIndex(value);
-        }
-        if (value >= getMinValue()) {
-            return (mNumberPicker.mDisplayedValues == null) ? mNumberPicker.formatNumber(value)
-                    : mNumberPicker.mDisplayedValues[value - getMinValue()];
+        if (!hasVirtualDecrementButton()) {
+            return null;
         }
-        return null;
+        return mNumberPicker.ensureCachedScrollSelectorValue(
+                mNumberPicker.getValueAfterSteps(getValue(), -1));
     }
 
     private String getVirtualIncrementButtonText() {
-        int value = getValue() + 1;
-        if (getWrapSelectorWheel()) {
-            value = mNumberPicker.getWrappedSelectorIndex(value);
-        }
-        if (value <= getMaxValue()) {
-            return (mNumberPicker.mDisplayedValues == null) ? mNumberPicker.formatNumber(value)
-                    : mNumberPicker.mDisplayedValues[value - getMinValue()];
+        if (!hasVirtualIncrementButton()) {
+            return null;
         }
-        return null;
+        return mNumberPicker.ensureCachedScrollSelectorValue(
+                mNumberPicker.getValueAfterSteps(getValue(), 1));
     }
 
     private Context getContext() {
@@ -527,75 +718,53 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
         return mNumberPicker.isEnabled();
     }
 
-    private int getValue() {
-        return mNumberPicker.getValue();
-    }
-
-    private int getMinValue() {
-        return mNumberPicker.getMinValue();
-    }
-
-    private int getMaxValue() {
-        return mNumberPicker.getMaxValue();
-    }
-
-    private boolean getWrapSelectorWheel() {
-        return mNumberPicker.getWrapSelectorWheel();
+    private long getValue() {
+        return mNumberPicker.getLongValue();
     }
 
     private EditText getInputText() {
         return mNumberPicker.mInputText;
     }
 
-
-    private Method mRequestAccessibilityFocus;
-    private Method mClearAccessibilityFocus;
-    private Method mIsVisibleToUser;
-
     private void requestAccessibilityFocus() {
-        try {
-            if (mRequestAccessibilityFocus == null) {
-                mRequestAccessibilityFocus = View.class.getMethod("requestAccessibilityFocus");
-            }
-            mRequestAccessibilityFocus.invoke(mNumberPicker);
-        } catch (NoSuchMethodException e) {
-        } catch (IllegalAccessException e) {
-        } catch (InvocationTargetException e) {
-        }
+        ViewCompat.performAccessibilityAction(
+                mNumberPicker, AccessibilityNodeInfoCompat.ACTION_ACCESSIBILITY_FOCUS, null);
     }
 
     private void clearAccessibilityFocus() {
-        try {
-            if (mClearAccessibilityFocus == null) {
-                mClearAccessibilityFocus = View.class.getMethod("clearAccessibilityFocus");
-            }
-            mClearAccessibilityFocus.invoke(mNumberPicker);
-        } catch (NoSuchMethodException e) {
-        } catch (IllegalAccessException e) {
-        } catch (InvocationTargetException e) {
-        }
+        ViewCompat.performAccessibilityAction(
+                mNumberPicker, AccessibilityNodeInfoCompat.ACTION_CLEAR_ACCESSIBILITY_FOCUS, null);
     }
 
     private float getApplicationScale() {
         return 1.0f;
     }
 
-    private boolean isVisibleToUser() {
+    boolean isVisibleToUser() {
         return isVisibleToUser(null);
     }
 
-    private boolean isVisibleToUser(Rect rect) {
-        try {
-            if (mIsVisibleToUser == null) {
-                mIsVisibleToUser = View.class.getDeclaredMethod("isVisibleToUser", Rect.class);
-                mIsVisibleToUser.setAccessible(true);
-            }
-            return (Boolean) mIsVisibleToUser.invoke(mNumberPicker, rect);
-        } catch (NoSuchMethodException e) {
-        } catch (IllegalAccessException e) {
-        } catch (InvocationTargetException e) {
+    /**
+     * Computes whether the picker, or the given bounds in it, is visible on
+     * screen. Same as the hidden View#isVisibleToUser(Rect): the given bounds
+     * are clipped to the visible part of the picker.
+     */
+    boolean isVisibleToUser(Rect boundsInView) {
+        final View view = mNumberPicker;
+        if (!ViewCompat.isAttachedToWindow(view)
+                || view.getWindowVisibility() != View.VISIBLE
+                || view.getAlpha() <= 0 || !view.isShown()) {
+            return false;
+        }
+        final Rect visibleRect = mTempVisibleRect;
+        final Point offset = mTempOffset;
+        if (!view.getGlobalVisibleRect(visibleRect, offset)) {
+            return false;
+        }
+        if (boundsInView != null) {
+            visibleRect.offset(-offset.x, -offset.y);
+            return boundsInView.intersect(visibleRect);
         }
-
         return true;
     }
 
@@ -607,4 +776,20 @@ class AccessibilityNodeProviderImpl extends AccessibilityNodeProviderCompat {
             rect.bottom = (int) (rect.bottom * scale + 0.5f);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Drops the snapshots when the picker may have moved on screen.
+     */
+    private class InvalidateSnapshotsListener
+            implements ViewTreeObserver.OnGlobalLayoutListener, ViewTreeObserver.OnScrollChangedListener {
+        @Override
+        public void onGlobalLayout() {
+            mSnapshotsValid = false;
+        }
+
+        @Override
+        public void onScrollChanged() {
+            mSnapshotsValid = false;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Shared frame clock for the scroll animations of all the number pickers.
+ * <p>
+ * A single {@link Choreographer} frame callback advances every animating
+ * picker with the vsync frame time, so that the pickers shown side by side
+ * (e.g. hour/minute/second) move in lock step and the motion is sampled
+ * at the display rate instead of at wall clock millisecond precision.
+ * </p>
+ * <p>
+ * Must be used only from the main thread.
+ * </p>
+ */
+final class AnimationFrameDriver {
+    /**
+     * The max age of the last frame time for it to be used as the current
+     * animation time. It is the frame interval at 60 Hz.
+     */
+    private static final long MAX_FRAME_TIME_AGE_NANOS = 16666667L;
+
+    private static AnimationFrameDriver sInstance;
+
+    private final ArrayList<NumberPicker> mPickers = new ArrayList<>();
+    private NumberPicker[] mTempPickers = new NumberPicker[4];
+    private final FrameCallbackImpl mFrameCallback;
+    private boolean mFrameCallbackPosted;
+    private long mLastFrameTimeNanos;
+
+    /**
+     * @return Whether the frame driver is available on this platform.
+     */
+    static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+    }
+
+    /**
+     * @return The frame driver instance, or <code>null</code> if not supported.
+     */
+    static AnimationFrameDriver getInstance() {
+        if (sInstance == null && isSupported()) {
+            sInstance = new AnimationFrameDriver();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Returns the time to start animations at, in the {@link System#nanoTime()}
+     * time base. It is the vsync time of the last frame while frames are
+     * being driven, so that an animation started while handling input or
+     * another animation samples its first frame at the same time as the
+     * other pickers. Otherwise it is the current time.
+     */
+    static long currentAnimationTimeNanos() {
+        final long now = System.nanoTime();
+        if (sInstance != null) {
+            final long frameTimeNanos = sInstance.mLastFrameTimeNanos;
+            if (frameTimeNanos != 0 && now - frameTimeNanos <= MAX_FRAME_TIME_AGE_NANOS) {
+                return frameTimeNanos;
+            }
+        }
+        return now;
+    }
+
+    private AnimationFrameDriver() {
+        mFrameCallback = new FrameCallbackImpl(this);
+    }
+
+    /**
+     * Starts advancing the given picker on every frame until its animations finish.
+     */
+    void add(NumberPicker picker) {
+        if (!mPickers.contains(picker)) {
+            mPickers.add(picker);
+        }
+        if (!mFrameCallbackPosted) {
+            mFrameCallbackPosted = true;
+            mFrameCallback.post();
+        }
+    }
+
+    /**
+     * Stops advancing the given picker.
+     */
+    void remove(NumberPicker picker) {
+        mPickers.remove(picker);
+    }
+
+    void doFrame(long frameTimeNanos) {
+        mFrameCallbackPosted = false;
+        mLastFrameTimeNanos = frameTimeNanos;
+
+        // pickers may be added or removed while dispatching
+        final int count = mPickers.size();
+        if (mTempPickers.length < count) {
+            mTempPickers = new NumberPicker[count];
+        }
+        final NumberPicker[] pickers = mPickers.toArray(mTempPickers);
+
+        for (int i = 0; i < count; i++) {
+            final NumberPicker picker = pickers[i];
+            pickers[i] = null;
+            if (!picker.doAnimationFrame(frameTimeNanos)) {
+                mPickers.remove(picker);
+            }
+        }
+
+        if (!mPickers.isEmpty() && !mFrameCallbackPosted) {
+            mFrameCallbackPosted = true;
+            mFrameCallback.post();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class FrameCallbackImpl implements Choreographer.FrameCallback {
+        private final AnimationFrameDriver mDriver;
+
+        FrameCallbackImpl(AnimationFrameDriver driver) {
+            mDriver = driver;
+        }
+
+        void post() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mDriver.doFrame(frameTimeNanos);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A {@link NumberPicker} whose value and range are <code>long</code>s.
+ * <p>
+ * It shares the rendering, scrolling and label caching of
+ * {@link NumberPicker}, so the memory footprint does not depend on the size
+ * of the range. The <code>int</code> based methods inherited from
+ * {@link NumberPicker} keep working; their values are clamped to the
+ * <code>int</code> range, and a {@link NumberPicker.Formatter} only applies
+ * to values within the <code>int</code> range.
+ * </p>
+ */
+public class LongNumberPicker extends NumberPicker {
+    /**
+     * Listener to be notified upon current value change.
+     */
+    private OnLongValueChangeListener mOnLongValueChangeListener;
+    /**
+     * Formatter for displaying the current value.
+     */
+    private LongFormatter mLongFormatter;
+
+    /**
+     * Interface to listen for changes of the current value.
+     */
+    public interface OnLongValueChangeListener {
+        /**
+         * Called upon a change of the current value.
+         *
+         * @param picker The LongNumberPicker associated with this listener.
+         * @param oldVal The previous value.
+         * @param newVal The new value.
+         */
+        void onValueChange(@NonNull LongNumberPicker picker, long oldVal, long newVal);
+    }
+
+    /**
+     * Interface used to format current value into a string for presentation.
+     */
+    public interface LongFormatter {
+        /**
+         * Formats a string representation of the current value.
+         *
+         * @param value The currently selected value.
+         * @return A formatted string representation.
+         */
+        @NonNull
+        String format(long value);
+    }
+
+    /**
+     * Create a new number picker.
+     *
+     * @param context The application environment.
+     */
+    public LongNumberPicker(@NonNull Context context) {
+        this(context, null);
+    }
+
+    /**
+     * Create a new number picker.
+     *
+     * @param context The application environment.
+     * @param attrs   A collection of attributes.
+     */
+    public LongNumberPicker(@NonNull Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, R.attr.npc_numberPickerStyle);
+    }
+
+    /**
+     * Create a new number picker
+     *
+     * @param context      the application environment.
+     * @param attrs        a collection of attributes.
+     * @param defStyleAttr An attribute in the current theme that contains a
+     *                     reference to a style resource that supplies default values for
+     *                     the view. Can be 0 to not look for defaults.
+     */
+    public LongNumberPicker(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    /**
+     * Sets the listener to be notified on change of the current value.
+     *
+     * @param onValueChangedListener The listener.
+     */
+    public void setOnLongValueChangedListener(@Nullable OnLongValueChangeListener onValueChangedListener) {
+        mOnLongValueChangeListener = onValueChangedListener;
+    }
+
+    /**
+     * Set the formatter to be used for formatting the current value.
+     * <p>
+     * Note: If you have provided alternative values for the values this
+     * formatter is never invoked.
+     * </p>
+     *
+     * @param formatter The formatter object. If formatter is <code>null</code>,
+     *                  {@link String#valueOf(long)} will be used.
+     * @see #setDisplayedValues(String[])
+     */
+    public void setLongFormatter(@Nullable LongFormatter formatter) {
+        if (formatter == mLongFormatter) {
+            return;
+        }
+        mLongFormatter = formatter;
+        refreshLabels();
+    }
+
+    /**
+     * Returns the value of the picker.
+     *
+     * @return The value.
+     */
+    @Override
+    public long getLongValue() {
+        return super.getLongValue();
+    }
+
+    /**
+     * Set the current value for the number picker.
+     *
+     * @param value The current value.
+     * @see #setValue(int)
+     */
+    @Override
+    public void setLongValue(long value) {
+        super.setLongValue(value);
+    }
+
+    /**
+     * Returns the min value of the picker.
+     *
+     * @return The min value
+     */
+    @Override
+    public long getLongMinValue() {
+        return super.getLongMinValue();
+    }
+
+    /**
+     * Sets the min value of the picker.
+     *
+     * @param minValue The min value inclusive.
+     * @see #setMinValue(int)
+     */
+    @Override
+    public void setLongMinValue(long minValue) {
+        super.setLongMinValue(minValue);
+    }
+
+    /**
+     * Returns the max value of the picker.
+     *
+     * @return The max value.
+     */
+    @Override
+    public long getLongMaxValue() {
+        return super.getLongMaxValue();
+    }
+
+    /**
+     * Sets the max value of the picker.
+     *
+     * @param maxValue The max value inclusive.
+     * @see #setMaxValue(int)
+     */
+    @Override
+    public void setLongMaxValue(long maxValue) {
+        super.setLongMaxValue(maxValue);
+    }
+
+    /**
+     * Returns the value the picker is going to settle on once the running
+     * fling or adjustment animation ends. If the picker is not animating,
+     * the current value is returned.
+     *
+     * @return The predicted value.
+     */
+    @Override
+    public long getPredictedSettleLongValue() {
+        return super.getPredictedSettleLongValue();
+    }
+
+    /**
+     * Scrolls the selector wheel to the given value with an animation.
+     *
+     * @param value The value to scroll to.
+     * @see #smoothScrollToValue(int, int)
+     */
+    public void smoothScrollToLongValue(long value) {
+        smoothScrollToLongValue(value, DEFAULT_SMOOTH_SCROLL_DURATION);
+    }
+
+    /**
+     * Scrolls the selector wheel to the given value with an animation.
+     *
+     * @param value          The value to scroll to.
+     * @param durationMillis The desired duration of the animation. It is
+     *                       clamped to a range of 100 ms to 1000 ms.
+     * @see #smoothScrollToValue(int, int)
+     */
+    @Override
+    public void smoothScrollToLongValue(long value, int durationMillis) {
+        super.smoothScrollToLongValue(value, durationMillis);
+    }
+
+    @Override
+    String formatNumber(long value) {
+        return (mLongFormatter != null) ? mLongFormatter.format(value) : super.formatNumber(value);
+    }
+
+    @Override
+    void notifyChange(long previous, long current) {
+        super.notifyChange(previous, current);
+        if (mOnLongValueChangeListener != null) {
+            mOnLongValueChangeListener.onValueChange(this, previous, getLongValue());
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.h6ah4i.android.widget.numberpickercompat;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.ColorStateList;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -26,14 +27,19 @@ import android.graphics.Paint;
 import android.graphics.Paint.Align;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.text.InputFilter;
 import android.text.InputType;
 import android.text.Spanned;
 import android.text.TextUtils;
 import android.text.method.NumberKeyListener;
 import android.util.AttributeSet;
-import android.util.SparseArray;
 import android.util.TypedValue;
+import android.view.Display;
+import android.view.HapticFeedbackConstants;
+import android.view.InputDevice;
 import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.LayoutInflater.Filter;
@@ -45,7 +51,6 @@ import android.view.accessibility.AccessibilityEvent;
 import android.view.accessibility.AccessibilityManager;
 import android.view.accessibility.AccessibilityNodeInfo;
 import android.view.accessibility.AccessibilityNodeProvider;
-import android.view.animation.DecelerateInterpolator;
 import android.view.inputmethod.EditorInfo;
 import android.view.inputmethod.InputMethodManager;
 import android.widget.EditText;
@@ -53,8 +58,9 @@ import android.widget.TextView;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
 
 import androidx.annotation.CallSuper;
 import androidx.annotation.DrawableRes;
@@ -67,6 +73,7 @@ import androidx.appcompat.widget.LinearLayoutCompat;
 import androidx.core.content.ContextCompat;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityManagerCompat;
 import androidx.core.view.accessibility.AccessibilityNodeProviderCompat;
 
 /**
@@ -122,6 +129,85 @@ public class NumberPicker extends LinearLayoutCompat {
      * The duration of scrolling while snapping to a given position.
      */
     private static final int SNAP_SCROLL_DURATION = 300;
+    /**
+     * The duration of scrolling by mouse wheel or rotary input.
+     */
+    private static final int GENERIC_SCROLL_DURATION = 150;
+    /**
+     * The duration of jumping by page or to an end of the range by key.
+     */
+    private static final int KEY_JUMP_DURATION = 200;
+    /**
+     * The number of key repeats after which the step of a held arrow key doubles.
+     */
+    private static final int KEY_REPEAT_ACCELERATION_INTERVAL = 10;
+    /**
+     * The default number of items the page keys move by.
+     */
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    /**
+     * The default min interval between value change accessibility events while scrolling.
+     */
+    static final int DEFAULT_ACCESSIBILITY_EVENT_INTERVAL = 200;
+    /**
+     * The time after which typed characters start a new type-to-seek search.
+     */
+    private static final int TYPE_TO_SEEK_TIMEOUT_MILLIS = 1000;
+    /**
+     * The max interval between rotary inputs which are part of the same
+     * gesture for computing the velocity.
+     */
+    private static final int ROTARY_VELOCITY_WINDOW_MILLIS = 100;
+    /**
+     * The rotary velocity, in items per second, above which rotary input
+     * flings the wheel.
+     */
+    private static final int ROTARY_FLING_ITEMS_PER_SECOND = 20;
+    /**
+     * The fling velocity, in items per second, below which the fling hands
+     * off to the settle engine.
+     */
+    private static final int SETTLE_HANDOFF_VELOCITY_ITEMS_PER_SECOND = 4;
+    /**
+     * The default duration of scrolling to a given value.
+     */
+    static final int DEFAULT_SMOOTH_SCROLL_DURATION = 400;
+    /**
+     * The min duration of scrolling to a given value.
+     */
+    private static final int MIN_SMOOTH_SCROLL_DURATION = 100;
+    /**
+     * The max duration of scrolling to a given value.
+     */
+    private static final int MAX_SMOOTH_SCROLL_DURATION = 1000;
+    /**
+     * The max number of items animated while scrolling to a given value. The
+     * items further away are skipped ahead.
+     */
+    private static final int MAX_SMOOTH_SCROLL_ANIMATED_ITEM_COUNT = 8;
+    /**
+     * The number of labels cached for the selector wheel. Must be a power of two.
+     */
+    private static final int SELECTOR_LABEL_CACHE_CAPACITY = 64;
+    /**
+     * The max number of labels prefetched along the path of a fling.
+     */
+    private static final int SELECTOR_LABEL_PREFETCH_COUNT = 16;
+    /**
+     * The number of digits the width is computed for in the unbounded mode
+     * if no max label length is set.
+     */
+    private static final int DEFAULT_UNBOUNDED_MAX_LABEL_LENGTH = 6;
+    /**
+     * The clock of the scrollers, which starts them at the frame time of the
+     * shared frame driver.
+     */
+    private static final WheelScroller.AnimationClock ANIMATION_CLOCK = new WheelScroller.AnimationClock() {
+        @Override
+        public long currentAnimationTimeNanos() {
+            return AnimationFrameDriver.currentAnimationTimeNanos();
+        }
+    };
     /**
      * The strength of fading in the top and bottom while drawing the selector.
      */
@@ -149,10 +235,10 @@ public class NumberPicker extends LinearLayoutCompat {
      */
     private static final int SIZE_UNSPECIFIED = -1;
     /**
-     * User choice on whether the selector wheel should be wrapped.
+     * The number of displayed values sampled for the provisional max width
+     * while the full measurement is running in background.
      */
-    private boolean mWrapSelectorWheelPreferred = true;
-
+    private static final int DISPLAYED_VALUES_MEASURE_SAMPLE_COUNT = 32;
 
     /**
      * Use a custom NumberPicker formatting callback to use two-digit minutes
@@ -161,39 +247,11 @@ public class NumberPicker extends LinearLayoutCompat {
      * format().
      */
     private static class TwoDigitFormatter implements NumberPicker.Formatter {
-        final StringBuilder mBuilder = new StringBuilder();
-        char mZeroDigit;
-        java.util.Formatter mFmt;
-        final Object[] mArgs = new Object[1];
-
-        TwoDigitFormatter() {
-            final Locale locale = Locale.getDefault();
-            init(locale);
-        }
-
-        private void init(Locale locale) {
-            mFmt = createFormatter(locale);
-            mZeroDigit = getZeroDigit(locale);
-        }
+        final NumberFormats.TwoDigits mTwoDigits = new NumberFormats.TwoDigits();
 
         @NonNull
         public String format(int value) {
-            final Locale currentLocale = Locale.getDefault();
-            if (mZeroDigit != getZeroDigit(currentLocale)) {
-                init(currentLocale);
-            }
-            mArgs[0] = value;
-            mBuilder.delete(0, mBuilder.length());
-            mFmt.format("%02d", mArgs);
-            return mFmt.toString();
-        }
-
-        private static char getZeroDigit(Locale locale) {
-            return DecimalFormatSymbols.getInstance(locale).getZeroDigit();
-        }
-
-        private java.util.Formatter createFormatter(Locale locale) {
-            return new java.util.Formatter(mBuilder, locale);
+            return mTwoDigits.format(value);
         }
     }
 
@@ -236,6 +294,50 @@ public class NumberPicker extends LinearLayoutCompat {
      * Flag whether to compute the max width.
      */
     private final boolean mComputeMaxWidth;
+    /**
+     * Executor for measuring the max width of the displayed values in background.
+     */
+    private Executor mDisplayedValuesMeasureExecutor;
+    /**
+     * Cache for the max text width of the displayed values keyed by array identity.
+     */
+    private final Map<String[], Integer> mDisplayedValuesTextWidthCache = new WeakHashMap<>();
+    /**
+     * The pending background measurement of the displayed values.
+     */
+    private MeasureDisplayedValuesCommand mMeasureDisplayedValuesCommand;
+    /**
+     * Handler for delivering the background measurement results.
+     */
+    private Handler mMainThreadHandler;
+    /**
+     * Whether the last measure inputs and results are valid.
+     */
+    private boolean mMeasureCacheValid;
+    /**
+     * The width measure spec of the last measure pass.
+     */
+    private int mLastWidthMeasureSpec;
+    /**
+     * The height measure spec of the last measure pass.
+     */
+    private int mLastHeightMeasureSpec;
+    /**
+     * The max width used by the last measure pass.
+     */
+    private int mLastMeasuredMaxWidth;
+    /**
+     * The text size used by the last measure pass.
+     */
+    private float mLastMeasuredTextSize;
+    /**
+     * The measured width and state of the last measure pass.
+     */
+    private int mLastMeasuredWidthAndState;
+    /**
+     * The measured height and state of the last measure pass.
+     */
+    private int mLastMeasuredHeightAndState;
     /**
      * The height of the text.
      */
@@ -249,17 +351,18 @@ public class NumberPicker extends LinearLayoutCompat {
      */
     String[] mDisplayedValues;
     /**
-     * Lower value of the range of numbers allowed for the NumberPicker
+     * The range or value set of the wheel and its wrap rules.
      */
-    private int mMinValue;
+    private final WheelModel mWheel = new WheelModel();
     /**
-     * Upper value of the range of numbers allowed for the NumberPicker
+     * The max number of characters of a label used for computing the width,
+     * or 0 to compute it from the max value.
      */
-    private int mMaxValue;
+    private int mMaxLabelLength;
     /**
      * Current value of this NumberPicker
      */
-    private int mValue;
+    private long mValue;
     /**
      * Listener to be notified upon current value change.
      */
@@ -268,6 +371,39 @@ public class NumberPicker extends LinearLayoutCompat {
      * Listener to be notified upon scroll state change.
      */
     private OnScrollListener mOnScrollListener;
+    /**
+     * Metrics listener of this picker, overriding the global one.
+     */
+    private NumberPickerMetrics mMetrics;
+    /**
+     * Metrics listener of all the pickers.
+     */
+    private static NumberPickerMetrics sGlobalMetrics;
+    /**
+     * The number of value changes during the current gesture, for the metrics.
+     */
+    private int mGestureValueChanges;
+    /**
+     * The uptime at which the running fling started, for the metrics, or 0.
+     */
+    private long mFlingStartTime;
+    /**
+     * The uptime at which the running settle animation started, for the metrics, or 0.
+     */
+    private long mSettleStartTime;
+    /**
+     * Listener to be notified upon fling start.
+     */
+    private OnFlingListener mOnFlingListener;
+    /**
+     * Listener to be notified of the frame timings of each gesture.
+     */
+    private OnFrameStatsListener mOnFrameStatsListener;
+    /**
+     * Records the frame timings while dragging or flinging, or null if no
+     * frame stats listener is set.
+     */
+    private FrameMonitor mFrameMonitor;
     /**
      * Formatter for for displaying the current value.
      */
@@ -279,11 +415,13 @@ public class NumberPicker extends LinearLayoutCompat {
     /**
      * Cache for the string representation of selector indices.
      */
-    private final SparseArray<String> mSelectorIndexToStringCache = new SparseArray<String>();
+    private final LabelCache mSelectorIndexToStringCache =
+            new LabelCache(SELECTOR_LABEL_CACHE_CAPACITY);
     /**
-     * The selector indices whose value are show by the selector.
+     * The positions on the wheel of the values shown by the selector, see
+     * {@link WheelModel#toValue(long)}.
      */
-    private final int[] mSelectorIndices = new int[SELECTOR_WHEEL_ITEM_COUNT];
+    private final long[] mSelectorIndices = new long[SELECTOR_WHEEL_ITEM_COUNT];
     /**
      * The {@link Paint} for drawing the selector.
      */
@@ -305,13 +443,27 @@ public class NumberPicker extends LinearLayoutCompat {
      */
     private int mCurrentScrollOffset;
     /**
-     * The {@link Scroller} responsible for flinging the selector.
+     * The {@link WheelScroller} responsible for flinging the selector.
+     */
+    private final WheelScroller mFlingScroller;
+    /**
+     * The {@link WheelScroller} responsible for adjusting the selector.
+     */
+    private final WheelScroller mAdjustScroller;
+    /**
+     * The engine settling the selector, or <code>null</code> for the default
+     * adjustment animation.
+     */
+    private SettleEngine mSettleEngine;
+    /**
+     * Whether scrolling to a value requested by {@link #smoothScrollToValue(int, int)}
+     * is in progress. Value changes are notified once it ends.
      */
-    private final Scroller mFlingScroller;
+    private boolean mSmoothScrolling;
     /**
-     * The {@link Scroller} responsible for adjusting the selector.
+     * The value when the current smooth scroll was started.
      */
-    private final Scroller mAdjustScroller;
+    private long mSmoothScrollStartValue;
     /**
      * The previous Y coordinate while scrolling the selector.
      */
@@ -333,6 +485,30 @@ public class NumberPicker extends LinearLayoutCompat {
      * Command for validate the text view.
      */
     private ValidateInputTextViewCommand mValidateInputTextViewCommand;
+    /**
+     * Command for applying the batched mouse wheel and rotary input.
+     */
+    private ApplyGenericScrollCommand mApplyGenericScrollCommand;
+    /**
+     * The number of items of mouse wheel and rotary input not applied yet.
+     */
+    private float mPendingGenericScrollItems;
+    /**
+     * Whether the pending input comes from a rotary encoder.
+     */
+    private boolean mPendingGenericScrollFromRotary;
+    /**
+     * The velocity of the rotary input, in items per second.
+     */
+    private float mRotaryVelocity;
+    /**
+     * The time of the last rotary input.
+     */
+    private long mLastRotaryEventTime;
+    /**
+     * The distance, in pixels, of one unit of rotary input.
+     */
+    private float mRotaryScrollFactor;
     /**
      * The Y position of the last down event.
      */
@@ -361,10 +537,6 @@ public class NumberPicker extends LinearLayoutCompat {
      * @see ViewConfiguration#getScaledMaximumFlingVelocity()
      */
     private int mMaximumFlingVelocity;
-    /**
-     * Flag whether the selector should wrap around.
-     */
-    private boolean mWrapSelectorWheel;
     /**
      * The back ground color used to optimize scroller fading.
      */
@@ -390,6 +562,22 @@ public class NumberPicker extends LinearLayoutCompat {
      * Flag whether to perform a click on tap.
      */
     private boolean mPerformClickOnTap;
+    /**
+     * Whether a long press on the middle item starts scrubbing.
+     */
+    private boolean mScrubEnabled;
+    /**
+     * Whether the value is being scrubbed.
+     */
+    private boolean mScrubbing;
+    /**
+     * The value when scrubbing was started.
+     */
+    private long mScrubStartValue;
+    /**
+     * The Y position of the touch when scrubbing was started.
+     */
+    private float mScrubStartY;
     /**
      * The top of the top selection divider.
      */
@@ -414,6 +602,22 @@ public class NumberPicker extends LinearLayoutCompat {
      * Provider to report to clients the semantic structure of this widget.
      */
     private AccessibilityNodeProviderImpl mAccessibilityNodeProviderCompat;
+    /**
+     * The accessibility manager, looked up once.
+     */
+    private final AccessibilityManager mAccessibilityManager;
+    /**
+     * Listener keeping the accessibility state flags up to date while attached.
+     */
+    private final AccessibilityStateListener mAccessibilityStateListener;
+    /**
+     * Whether accessibility is enabled.
+     */
+    private volatile boolean mAccessibilityEnabled;
+    /**
+     * Whether touch exploration is enabled.
+     */
+    private volatile boolean mTouchExplorationEnabled;
     /**
      * Helper class for managing pressed state of the virtual buttons.
      */
@@ -422,6 +626,30 @@ public class NumberPicker extends LinearLayoutCompat {
      * The keycode of the last handled DPAD down event.
      */
     private int mLastHandledDownDpadKeyCode = -1;
+    /**
+     * The number of items the page keys move by.
+     */
+    private int mPageSize = DEFAULT_PAGE_SIZE;
+    /**
+     * The min interval between value change accessibility events while scrolling.
+     */
+    private int mAccessibilityEventInterval = DEFAULT_ACCESSIBILITY_EVENT_INTERVAL;
+    /**
+     * Whether typed characters jump to the matching value.
+     */
+    private boolean mTypeToSeekEnabled = true;
+    /**
+     * The characters typed for type-to-seek.
+     */
+    private final StringBuilder mTypeToSeekBuffer = new StringBuilder();
+    /**
+     * The time of the last key typed for type-to-seek.
+     */
+    private long mLastTypeToSeekEventTime;
+    /**
+     * The key code of the last down event handled by type-to-seek.
+     */
+    private int mLastHandledTypeToSeekKeyCode = -1;
     /**
      * If true then the selector wheel is hidden until the picker has focus.
      */
@@ -481,6 +709,32 @@ public class NumberPicker extends LinearLayoutCompat {
         public void onScrollStateChange(@NonNull NumberPicker view, @ScrollState int scrollState);
     }
 
+    /**
+     * Interface to listen for the value a fling is going to settle on.
+     */
+    public interface OnFlingListener {
+        /**
+         * Called upon the start of a fling.
+         *
+         * @param picker         The NumberPicker associated with this listener.
+         * @param predictedValue The value the picker is predicted to settle on.
+         */
+        void onFling(@NonNull NumberPicker picker, int predictedValue);
+    }
+
+    /**
+     * Interface to receive the frame timings of each drag or fling gesture.
+     */
+    public interface OnFrameStatsListener {
+        /**
+         * Called when a drag or fling gesture has ended.
+         *
+         * @param picker The NumberPicker associated with this listener.
+         * @param stats  The summary of the frames of the gesture.
+         */
+        void onFrameStats(@NonNull NumberPicker picker, @NonNull FrameStats stats);
+    }
+
     /**
      * Interface used to format current value into a string for presentation.
      */
@@ -584,6 +838,10 @@ public class NumberPicker extends LinearLayoutCompat {
                 R.styleable.npc_NumberPicker_npc_virtualButtonPressedDrawable);
         attributesArray.recycle();
         mPressedStateHelper = new PressedStateHelper();
+        mAccessibilityManager =
+                (AccessibilityManager) getContext().getSystemService(Context.ACCESSIBILITY_SERVICE);
+        mAccessibilityStateListener = new AccessibilityStateListener();
+        updateAccessibilityState();
         setWillNotDraw(false);
         LayoutInflater inflater = (LayoutInflater) getContext().getSystemService(
                 Context.LAYOUT_INFLATER_SERVICE);
@@ -621,6 +879,9 @@ public class NumberPicker extends LinearLayoutCompat {
         mMinimumFlingVelocity = configuration.getScaledMinimumFlingVelocity();
         mMaximumFlingVelocity = configuration.getScaledMaximumFlingVelocity()
                 / SELECTOR_MAX_FLING_VELOCITY_ADJUSTMENT;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            mRotaryScrollFactor = configuration.getScaledVerticalScrollFactor();
+        }
         mTextSize = (int) mInputText.getTextSize();
         // create the selector wheel paint
         Paint paint = new Paint();
@@ -633,8 +894,12 @@ public class NumberPicker extends LinearLayoutCompat {
         paint.setColor(color);
         mSelectorWheelPaint = paint;
         // create the fling and adjust scrollers
-        mFlingScroller = new Scroller(getContext(), null, true);
-        mAdjustScroller = new Scroller(getContext(), new DecelerateInterpolator(2.5f));
+        final float density = getResources().getDisplayMetrics().density;
+        mFlingScroller = new WheelScroller(density, null, true, ANIMATION_CLOCK);
+        mAdjustScroller = new WheelScroller(
+                density, new WheelScroller.DecelerateInterpolator(2.5f), true, ANIMATION_CLOCK);
+        mFlingScroller.setFriction(ViewConfiguration.getScrollFriction());
+        mAdjustScroller.setFriction(ViewConfiguration.getScrollFriction());
         updateInputTextView();
         // If not explicitly specified this view is important for accessibility.
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
@@ -646,6 +911,17 @@ public class NumberPicker extends LinearLayoutCompat {
 
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#onLayout");
+        try {
+            onLayoutInternal(changed, left, top, right, bottom);
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
+            }
+        }
+    }
+
+    private void onLayoutInternal(boolean changed, int left, int top, int right, int bottom) {
         final int msrdWdth = getMeasuredWidth();
         final int msrdHght = getMeasuredHeight();
         // Input text centered horizontally.
@@ -669,6 +945,30 @@ public class NumberPicker extends LinearLayoutCompat {
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#onMeasure");
+        try {
+            onMeasureInternal(widthMeasureSpec, heightMeasureSpec);
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
+            }
+        }
+    }
+
+    private void onMeasureInternal(int widthMeasureSpec, int heightMeasureSpec) {
+        // Parents often measure their children several times per pass with the same specs.
+        if (mMeasureCacheValid
+                && mLastWidthMeasureSpec == widthMeasureSpec
+                && mLastHeightMeasureSpec == heightMeasureSpec
+                && mLastMeasuredMaxWidth == mMaxWidth
+                && mLastMeasuredTextSize == mInputText.getTextSize()) {
+            setMeasuredDimension(mLastMeasuredWidthAndState, mLastMeasuredHeightAndState);
+            final NumberPickerMetrics metrics = getMetrics();
+            if (metrics != null) {
+                metrics.onMeasure(this, true);
+            }
+            return;
+        }
         // Try greedily to fit the max width and height.
         final int newWidthMeasureSpec = makeMeasureSpec(widthMeasureSpec, mMaxWidth);
         final int newHeightMeasureSpec = makeMeasureSpec(heightMeasureSpec, mMaxHeight);
@@ -679,6 +979,40 @@ public class NumberPicker extends LinearLayoutCompat {
         final int heightSize = resolveSizeAndStateRespectingMinSize(mMinHeight, getMeasuredHeight(),
                 heightMeasureSpec);
         setMeasuredDimension(widthSize, heightSize);
+        mLastWidthMeasureSpec = widthMeasureSpec;
+        mLastHeightMeasureSpec = heightMeasureSpec;
+        mLastMeasuredMaxWidth = mMaxWidth;
+        mLastMeasuredTextSize = mInputText.getTextSize();
+        mLastMeasuredWidthAndState = getMeasuredWidthAndState();
+        mLastMeasuredHeightAndState = getMeasuredHeightAndState();
+        mMeasureCacheValid = true;
+        final NumberPickerMetrics metrics = getMetrics();
+        if (metrics != null) {
+            metrics.onMeasure(this, false);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        final NumberPickerMetrics metrics = getMetrics();
+        if (metrics != null) {
+            metrics.onInvalidate(this);
+        }
+    }
+
+    @Override
+    public void requestLayout() {
+        // Any change which may affect the size of this view or its children
+        // ends up here (padding, visibility, layout params, child text, ...).
+        mMeasureCacheValid = false;
+        super.requestLayout();
+    }
+
+    @Override
+    public void forceLayout() {
+        mMeasureCacheValid = false;
+        super.forceLayout();
     }
 
     /**
@@ -689,7 +1023,7 @@ public class NumberPicker extends LinearLayoutCompat {
      * @param scroller The scroller to whose final position to get.
      * @return True of the a move was performed, i.e. the scroller was not in final position.
      */
-    private boolean moveToFinalScrollerPosition(Scroller scroller) {
+    private boolean moveToFinalScrollerPosition(WheelScroller scroller) {
         scroller.forceFinished(true);
         int amountToScroll = scroller.getFinalY() - scroller.getCurrY();
         int futureScrollOffset = (mCurrentScrollOffset + amountToScroll) % mSelectorElementHeight;
@@ -723,6 +1057,7 @@ public class NumberPicker extends LinearLayoutCompat {
                 mLastDownEventTime = event.getEventTime();
                 mIgnoreMoveEvents = false;
                 mPerformClickOnTap = false;
+                mScrubbing = false;
                 // Handle pressed state before any state change.
                 if (mLastDownEventY < mTopSelectionDividerTop) {
                     if (mScrollState == OnScrollListener.SCROLL_STATE_IDLE) {
@@ -740,10 +1075,12 @@ public class NumberPicker extends LinearLayoutCompat {
                 if (!mFlingScroller.isFinished()) {
                     mFlingScroller.forceFinished(true);
                     mAdjustScroller.forceFinished(true);
+                    finishSmoothScroll();
                     onScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
                 } else if (!mAdjustScroller.isFinished()) {
                     mFlingScroller.forceFinished(true);
                     mAdjustScroller.forceFinished(true);
+                    finishSmoothScroll();
                 } else if (mLastDownEventY < mTopSelectionDividerTop) {
                     hideSoftInput();
                     postChangeCurrentByOneFromLongPress(
@@ -774,6 +1111,10 @@ public class NumberPicker extends LinearLayoutCompat {
         int action = event.getActionMasked();
         switch (action) {
             case MotionEvent.ACTION_MOVE: {
+                if (mScrubbing) {
+                    scrubTo(event.getY());
+                    break;
+                }
                 if (mIgnoreMoveEvents) {
                     break;
                 }
@@ -796,6 +1137,12 @@ public class NumberPicker extends LinearLayoutCompat {
                 removeBeginSoftInputCommand();
                 removeChangeCurrentByOneFromLongPress();
                 mPressedStateHelper.cancel();
+                if (mScrubbing) {
+                    finishScrub();
+                    mVelocityTracker.recycle();
+                    mVelocityTracker = null;
+                    break;
+                }
                 VelocityTracker velocityTracker = mVelocityTracker;
                 velocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
                 int initialVelocity = (int) velocityTracker.getYVelocity();
@@ -824,7 +1171,7 @@ public class NumberPicker extends LinearLayoutCompat {
                             }
                         }
                     } else {
-                        ensureScrollWheelAdjusted();
+                        ensureScrollWheelAdjusted(initialVelocity);
                     }
                     onScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
                 }
@@ -836,11 +1183,111 @@ public class NumberPicker extends LinearLayoutCompat {
         return true;
     }
 
+    @Override
+    public boolean onGenericMotionEvent(MotionEvent event) {
+        if (isEnabled() && mSelectorElementHeight > 0
+                && event.getActionMasked() == MotionEvent.ACTION_SCROLL) {
+            final int source = event.getSource();
+            float items = 0;
+            boolean rotary = false;
+            if ((source & InputDevice.SOURCE_CLASS_POINTER) != 0) {
+                // an item per mouse wheel detent, fractions from touchpads
+                items = -event.getAxisValue(MotionEvent.AXIS_VSCROLL);
+            } else if ((source & InputDevice.SOURCE_ROTARY_ENCODER) == InputDevice.SOURCE_ROTARY_ENCODER) {
+                items = -event.getAxisValue(MotionEvent.AXIS_SCROLL)
+                        * mRotaryScrollFactor / mSelectorElementHeight;
+                rotary = true;
+            }
+            if (items != 0) {
+                onGenericScroll(items, rotary, event.getEventTime());
+                return true;
+            }
+        }
+        return super.onGenericMotionEvent(event);
+    }
+
+    /**
+     * Accumulates mouse wheel or rotary input, to be applied once on the next
+     * animation frame.
+     *
+     * @param items     The number of items to scroll by, positive to increment.
+     * @param rotary    Whether the input comes from a rotary encoder.
+     * @param eventTime The time of the input.
+     */
+    private void onGenericScroll(float items, boolean rotary, long eventTime) {
+        if (rotary) {
+            final long interval = eventTime - mLastRotaryEventTime;
+            if (interval >= ROTARY_VELOCITY_WINDOW_MILLIS) {
+                mRotaryVelocity = 0;
+            } else if (interval > 0) {
+                mRotaryVelocity = (mRotaryVelocity + items * 1000 / interval) / 2;
+            }
+            mLastRotaryEventTime = eventTime;
+        }
+        if ((items > 0) != (mPendingGenericScrollItems > 0)) {
+            // drop the fraction left over from the other direction
+            mPendingGenericScrollItems = 0;
+        }
+        mPendingGenericScrollItems += items;
+        mPendingGenericScrollFromRotary = rotary;
+        if (mApplyGenericScrollCommand == null) {
+            mApplyGenericScrollCommand = new ApplyGenericScrollCommand();
+        }
+        if (!mApplyGenericScrollCommand.mPosted) {
+            mApplyGenericScrollCommand.mPosted = true;
+            ViewCompat.postOnAnimation(this, mApplyGenericScrollCommand);
+        }
+    }
+
+    /**
+     * Scrolls by the whole items of the accumulated mouse wheel and rotary
+     * input, keeping the fraction for later, or flings if the rotary input is
+     * fast enough.
+     */
+    private void applyGenericScroll() {
+        final int items = (int) mPendingGenericScrollItems;
+        if (items == 0) {
+            return;
+        }
+        mPendingGenericScrollItems -= items;
+        mInputText.setVisibility(View.INVISIBLE);
+        if (!mAdjustScroller.isFinished()) {
+            moveToFinalScrollerPosition(mAdjustScroller);
+        }
+        finishSmoothScroll();
+
+        if (mPendingGenericScrollFromRotary
+                && Math.abs(mRotaryVelocity) >= ROTARY_FLING_ITEMS_PER_SECOND) {
+            final float velocity = -mRotaryVelocity * mSelectorElementHeight;
+            mFlingScroller.forceFinished(true);
+            mPendingGenericScrollItems = 0;
+            fling((int) Math.max(-mMaximumFlingVelocity, Math.min(velocity, mMaximumFlingVelocity)));
+            onScrollStateChange(OnScrollListener.SCROLL_STATE_FLING);
+            return;
+        }
+
+        // extend the running scroll, so that fast input does not stutter
+        int remainingScroll = 0;
+        if (!mFlingScroller.isFinished()) {
+            remainingScroll = mFlingScroller.getFinalY() - mPreviousScrollerY;
+            mFlingScroller.forceFinished(true);
+        }
+        mPreviousScrollerY = 0;
+        mFlingScroller.startScroll(0, remainingScroll - items * mSelectorElementHeight,
+                GENERIC_SCROLL_DURATION);
+        scheduleScrollAnimation();
+    }
+
     @Override
     public boolean dispatchTouchEvent(MotionEvent event) {
         final int action = event.getActionMasked();
         switch (action) {
             case MotionEvent.ACTION_CANCEL:
+                if (mScrubbing) {
+                    finishScrub();
+                }
+                removeAllCallbacks();
+                break;
             case MotionEvent.ACTION_UP:
                 removeAllCallbacks();
                 break;
@@ -851,6 +1298,17 @@ public class NumberPicker extends LinearLayoutCompat {
     @Override
     public boolean dispatchKeyEvent(KeyEvent event) {
         final int keyCode = event.getKeyCode();
+        // only the keys received by the picker itself, not by its input text
+        if (mTypeToSeekEnabled && isFocused()) {
+            if (event.getAction() == KeyEvent.ACTION_DOWN && handleTypeToSeekKey(event)) {
+                mLastHandledTypeToSeekKeyCode = keyCode;
+                return true;
+            }
+            if (event.getAction() == KeyEvent.ACTION_UP && mLastHandledTypeToSeekKeyCode == keyCode) {
+                mLastHandledTypeToSeekKeyCode = -1;
+                return true;
+            }
+        }
         switch (keyCode) {
             case KeyEvent.KEYCODE_DPAD_CENTER:
             case KeyEvent.KEYCODE_ENTER:
@@ -860,12 +1318,16 @@ public class NumberPicker extends LinearLayoutCompat {
             case KeyEvent.KEYCODE_DPAD_UP:
                 switch (event.getAction()) {
                     case KeyEvent.ACTION_DOWN:
-                        if (mWrapSelectorWheel || ((keyCode == KeyEvent.KEYCODE_DPAD_DOWN)
-                                ? getValue() < getMaxValue() : getValue() > getMinValue())) {
+                        if ((keyCode == KeyEvent.KEYCODE_DPAD_DOWN)
+                                ? hasNextValue() : hasPreviousValue()) {
                             requestFocus();
                             mLastHandledDownDpadKeyCode = keyCode;
                             removeAllCallbacks();
-                            if (mFlingScroller.isFinished()) {
+                            final int stepCount = getKeyRepeatStepCount(event.getRepeatCount());
+                            if (stepCount > 1) {
+                                jumpBySteps((keyCode == KeyEvent.KEYCODE_DPAD_DOWN)
+                                        ? stepCount : -stepCount);
+                            } else if (mFlingScroller.isFinished()) {
                                 changeValueByOne(keyCode == KeyEvent.KEYCODE_DPAD_DOWN);
                             }
                             return true;
@@ -878,29 +1340,194 @@ public class NumberPicker extends LinearLayoutCompat {
                         }
                         break;
                 }
+                break;
+            case KeyEvent.KEYCODE_PAGE_DOWN:
+            case KeyEvent.KEYCODE_PAGE_UP:
+            case KeyEvent.KEYCODE_MOVE_HOME:
+            case KeyEvent.KEYCODE_MOVE_END:
+                switch (event.getAction()) {
+                    case KeyEvent.ACTION_DOWN:
+                        if (handleJumpKey(keyCode)) {
+                            requestFocus();
+                            mLastHandledDownDpadKeyCode = keyCode;
+                            return true;
+                        }
+                        break;
+                    case KeyEvent.ACTION_UP:
+                        if (mLastHandledDownDpadKeyCode == keyCode) {
+                            mLastHandledDownDpadKeyCode = -1;
+                            return true;
+                        }
+                        break;
+                }
+                break;
         }
         return super.dispatchKeyEvent(event);
     }
 
-    @Override
-    public boolean dispatchTrackballEvent(MotionEvent event) {
-        final int action = event.getActionMasked();
-        switch (action) {
-            case MotionEvent.ACTION_CANCEL:
-            case MotionEvent.ACTION_UP:
-                removeAllCallbacks();
-                break;
+    /**
+     * Appends the character of the given key to the type-to-seek buffer and
+     * jumps to the value matching the buffer.
+     *
+     * @return Whether the key was handled, i.e. it matches a value.
+     */
+    private boolean handleTypeToSeekKey(KeyEvent event) {
+        final int c = event.getUnicodeChar();
+        final boolean accepted = (mDisplayedValues != null)
+                ? Character.isLetterOrDigit(c) : (Character.isDigit(c) || c == '-');
+        if (!accepted) {
+            return false;
         }
-        return super.dispatchTrackballEvent(event);
+        final StringBuilder buffer = mTypeToSeekBuffer;
+        final long eventTime = event.getEventTime();
+        if (eventTime - mLastTypeToSeekEventTime > TYPE_TO_SEEK_TIMEOUT_MILLIS) {
+            buffer.setLength(0);
+        }
+        mLastTypeToSeekEventTime = eventTime;
+        buffer.append((char) c);
+        if (seekTypedText(buffer.toString())) {
+            return true;
+        }
+        if (buffer.length() > 1) {
+            // start over from the key just typed
+            buffer.setLength(0);
+            buffer.append((char) c);
+            if (seekTypedText(buffer.toString())) {
+                return true;
+            }
+        }
+        // leave the key that matches nothing to the other handlers
+        buffer.setLength(0);
+        return false;
     }
 
-    @Override
-    protected boolean dispatchHoverEvent(MotionEvent event) {
-        AccessibilityManager accessibilityManager =
-                (AccessibilityManager) getContext().getSystemService(Context.ACCESSIBILITY_SERVICE);
-
-        if (accessibilityManager.isEnabled()) {
-            final int eventY = (int) event.getY();
+    /**
+     * Jumps to the value typed in, or to the first displayed value starting
+     * with the given text.
+     *
+     * @return Whether the text matches a value.
+     */
+    private boolean seekTypedText(String text) {
+        if (mDisplayedValues != null) {
+            final int index = findDisplayedValueIndex(text);
+            if (index < 0) {
+                return false;
+            }
+            jumpToValue(mWheel.toValue(mWheel.getFirstPosition() + index));
+            return true;
+        }
+        final long value;
+        try {
+            value = Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            // a lone minus sign waits for the digits
+            return "-".equals(text);
+        }
+        jumpToNearestValue(value);
+        return true;
+    }
+
+    /**
+     * Stops the running animation and sets the value nearest to the given
+     * one right away, without wrapping.
+     */
+    void jumpToNearestValue(long value) {
+        jumpToValue(mWheel.getNearestValue(value));
+    }
+
+    /**
+     * Stops the running animation and sets the given value right away.
+     */
+    private void jumpToValue(long value) {
+        mFlingScroller.forceFinished(true);
+        mAdjustScroller.forceFinished(true);
+        finishSmoothScroll();
+        mCurrentScrollOffset = mInitialScrollOffset;
+        if (mAccessibilityNodeProviderCompat != null) {
+            // the new value is announced instead
+            mAccessibilityNodeProviderCompat.dropPendingEvent();
+        }
+        onScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
+        setValueInternal(value, true);
+        invalidate();
+    }
+
+    /**
+     * Jumps by a page or to an end of the range for the given key.
+     *
+     * @return Whether the key was handled.
+     */
+    private boolean handleJumpKey(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_PAGE_DOWN:
+                if (!hasNextValue()) {
+                    return false;
+                }
+                removeAllCallbacks();
+                jumpBySteps(mPageSize);
+                return true;
+            case KeyEvent.KEYCODE_PAGE_UP:
+                if (!hasPreviousValue()) {
+                    return false;
+                }
+                removeAllCallbacks();
+                jumpBySteps(-mPageSize);
+                return true;
+            case KeyEvent.KEYCODE_MOVE_HOME:
+            case KeyEvent.KEYCODE_MOVE_END:
+                if (mWheel.isUnbounded()) {
+                    return false;
+                }
+                removeAllCallbacks();
+                smoothScrollToLongValue(mWheel.toValue((keyCode == KeyEvent.KEYCODE_MOVE_HOME)
+                        ? mWheel.getFirstPosition() : mWheel.getLastPosition()), KEY_JUMP_DURATION);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Scrolls by the given number of items from where the running animation
+     * ends. Only the last few items are animated.
+     */
+    private void jumpBySteps(long steps) {
+        final long start = getPredictedSettleLongValue();
+        finishScrollAnimations();
+        // the wheel may have stopped an item short of the predicted value
+        steps += mWheel.distance(mValue, start);
+        // pass the signed steps on, the shorter way around may be the other way
+        smoothScrollBySteps(mWheel.limitSteps(mValue, steps), KEY_JUMP_DURATION);
+    }
+
+    /**
+     * @return The number of items a repeated arrow key moves by. It doubles
+     * every {@link #KEY_REPEAT_ACCELERATION_INTERVAL} repeats, up to the page size.
+     */
+    private int getKeyRepeatStepCount(int repeatCount) {
+        final int doublings = repeatCount / KEY_REPEAT_ACCELERATION_INTERVAL;
+        if (doublings >= 31) {
+            return mPageSize;
+        }
+        return Math.min(1 << doublings, mPageSize);
+    }
+
+    @Override
+    public boolean dispatchTrackballEvent(MotionEvent event) {
+        final int action = event.getActionMasked();
+        switch (action) {
+            case MotionEvent.ACTION_CANCEL:
+            case MotionEvent.ACTION_UP:
+                removeAllCallbacks();
+                break;
+        }
+        return super.dispatchTrackballEvent(event);
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        if (mAccessibilityEnabled && mTouchExplorationEnabled) {
+            final int eventY = (int) event.getY();
             final int hoveredVirtualViewId;
             if (eventY < mTopSelectionDividerTop) {
                 hoveredVirtualViewId = AccessibilityNodeProviderImpl.VIRTUAL_VIEW_ID_DECREMENT;
@@ -947,14 +1574,63 @@ public class NumberPicker extends LinearLayoutCompat {
 
     @Override
     public void computeScroll() {
-        Scroller scroller = mFlingScroller;
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#computeScroll");
+        try {
+            computeScrollInternal();
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
+            }
+        }
+    }
+
+    private void computeScrollInternal() {
+        final FrameMonitor frameMonitor = mFrameMonitor;
+        if (frameMonitor != null && frameMonitor.isRunning()) {
+            frameMonitor.onFrame(System.nanoTime());
+        }
+        if (AnimationFrameDriver.isSupported()) {
+            // animated by the shared frame driver
+            return;
+        }
+        // the same time base as the start time of the scrollers
+        doAnimationFrame(ANIMATION_CLOCK.currentAnimationTimeNanos());
+    }
+
+    /**
+     * Advances the running scroller to the given frame time.
+     *
+     * @param frameTimeNanos The frame time in nanoseconds.
+     * @return Whether any scroller is still running.
+     */
+    boolean doAnimationFrame(long frameTimeNanos) {
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#doAnimationFrame");
+        try {
+            return doAnimationFrameInternal(frameTimeNanos);
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
+            }
+        }
+    }
+
+    private boolean doAnimationFrameInternal(long frameTimeNanos) {
+        WheelScroller scroller = mFlingScroller;
         if (scroller.isFinished()) {
             scroller = mAdjustScroller;
             if (scroller.isFinished()) {
-                return;
+                return false;
             }
         }
-        scroller.computeScrollOffset();
+        scroller.computeScrollOffset(frameTimeNanos);
+        if (scroller == mFlingScroller && mSettleEngine != null && !scroller.isFinished()
+                && mScrollState == OnScrollListener.SCROLL_STATE_FLING
+                && Math.abs(scroller.getCurrVelocity())
+                        < mSelectorElementHeight * SETTLE_HANDOFF_VELOCITY_ITEMS_PER_SECOND) {
+            handOffFlingToSettleEngine();
+            scroller = mAdjustScroller;
+            scroller.computeScrollOffset(frameTimeNanos);
+        }
         int currentScrollerY = scroller.getCurrY();
         if (mPreviousScrollerY == 0) {
             mPreviousScrollerY = scroller.getStartY();
@@ -966,6 +1642,40 @@ public class NumberPicker extends LinearLayoutCompat {
         } else {
             invalidate();
         }
+        return !(mFlingScroller.isFinished() && mAdjustScroller.isFinished());
+    }
+
+    /**
+     * Replaces the slow tail of the running fling with the settle engine,
+     * carrying over the velocity and aiming at the item nearest to where the
+     * fling would have stopped.
+     */
+    private void handOffFlingToSettleEngine() {
+        final float velocity = mFlingScroller.getCurrVelocity();
+        final int remainingScroll = mFlingScroller.getFinalY() - mFlingScroller.getCurrY();
+        // apply the scroll made by the fling so far
+        scrollBy(0, mFlingScroller.getCurrY() - mPreviousScrollerY);
+        mFlingScroller.forceFinished(true);
+        reportScrollerFinished(mFlingScroller);
+
+        final int offset = mCurrentScrollOffset - mInitialScrollOffset;
+        final int settleOffset = Math.round((float) (offset + remainingScroll)
+                / mSelectorElementHeight) * mSelectorElementHeight;
+        mPreviousScrollerY = 0;
+        mSettleStartTime = (getMetrics() != null) ? SystemClock.uptimeMillis() : 0;
+        mAdjustScroller.settle(0, settleOffset - offset, velocity, mSettleEngine);
+        onScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
+    }
+
+    /**
+     * Schedules animation frames for the scroller which has just been started.
+     */
+    private void scheduleScrollAnimation() {
+        final AnimationFrameDriver frameDriver = AnimationFrameDriver.getInstance();
+        if (frameDriver != null) {
+            frameDriver.add(this);
+        }
+        invalidate();
     }
 
     @Override
@@ -976,14 +1686,25 @@ public class NumberPicker extends LinearLayoutCompat {
 
     @Override
     public void scrollBy(int x, int y) {
-        int[] selectorIndices = mSelectorIndices;
-        if (!mWrapSelectorWheel && y > 0
-                && selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX] <= mMinValue) {
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#scrollBy");
+        try {
+            scrollByInternal(x, y);
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
+            }
+        }
+    }
+
+    private void scrollByInternal(int x, int y) {
+        long[] selectorIndices = mSelectorIndices;
+        if (!mWheel.isWrapping() && y > 0
+                && selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX] <= mWheel.getFirstPosition()) {
             mCurrentScrollOffset = mInitialScrollOffset;
             return;
         }
-        if (!mWrapSelectorWheel && y < 0
-                && selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX] >= mMaxValue) {
+        if (!mWheel.isWrapping() && y < 0
+                && selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX] >= mWheel.getLastPosition()) {
             mCurrentScrollOffset = mInitialScrollOffset;
             return;
         }
@@ -991,16 +1712,18 @@ public class NumberPicker extends LinearLayoutCompat {
         while (mCurrentScrollOffset - mInitialScrollOffset > mSelectorTextGapHeight) {
             mCurrentScrollOffset -= mSelectorElementHeight;
             decrementSelectorIndices(selectorIndices);
-            setValueInternal(selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX], true);
-            if (!mWrapSelectorWheel && selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX] <= mMinValue) {
+            setValueInternal(mWheel.toValue(selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX]), true, true);
+            if (!mWheel.isWrapping()
+                    && selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX] <= mWheel.getFirstPosition()) {
                 mCurrentScrollOffset = mInitialScrollOffset;
             }
         }
         while (mCurrentScrollOffset - mInitialScrollOffset < -mSelectorTextGapHeight) {
             mCurrentScrollOffset += mSelectorElementHeight;
             incrementSelectorIndices(selectorIndices);
-            setValueInternal(selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX], true);
-            if (!mWrapSelectorWheel && selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX] >= mMaxValue) {
+            setValueInternal(mWheel.toValue(selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX]), true, true);
+            if (!mWheel.isWrapping()
+                    && selectorIndices[SELECTOR_MIDDLE_ITEM_INDEX] >= mWheel.getLastPosition()) {
                 mCurrentScrollOffset = mInitialScrollOffset;
             }
         }
@@ -1013,7 +1736,9 @@ public class NumberPicker extends LinearLayoutCompat {
 
     @Override
     protected int computeVerticalScrollRange() {
-        return (mMaxValue - mMinValue + 1) * mSelectorElementHeight;
+        final long span = mWheel.getLastPosition() - mWheel.getFirstPosition();
+        // the value count overflows to zero for the full long range
+        return saturatedScrollY((span == -1L) ? span : span + 1);
     }
 
     @Override
@@ -1044,6 +1769,206 @@ public class NumberPicker extends LinearLayoutCompat {
         mOnScrollListener = onScrollListener;
     }
 
+    /**
+     * Returns whether trace sections are enabled.
+     *
+     * @return <code>true</code> if trace sections are enabled.
+     * @see #setTraceSectionsEnabled(boolean)
+     */
+    public static boolean isTraceSectionsEnabled() {
+        return NumberPickerTrace.isEnabled();
+    }
+
+    /**
+     * Sets whether the pickers add trace sections around their drawing,
+     * measurement, layout, scrolling, value changes and input filtering, so
+     * that their work shows up in system traces. When disabled, which is the
+     * default, each section costs a single boolean check.
+     * <p>
+     * Trace sections require the application to depend on
+     * <code>androidx.tracing:tracing</code>.
+     * </p>
+     *
+     * @param enabled Whether to enable trace sections.
+     * @throws IllegalStateException If enabled without androidx.tracing.
+     */
+    public static void setTraceSectionsEnabled(boolean enabled) {
+        NumberPickerTrace.setEnabled(enabled);
+    }
+
+    /**
+     * Sets the listener to receive the counters and timings of this picker,
+     * instead of the global one.
+     *
+     * @param metrics The metrics listener, or <code>null</code> to use the
+     *                global one.
+     * @see #setGlobalMetrics(NumberPickerMetrics)
+     */
+    public void setMetrics(@Nullable NumberPickerMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    /**
+     * Sets the listener to receive the counters and timings of all the
+     * pickers without their own metrics listener. Call it on the main thread.
+     *
+     * @param metrics The metrics listener, or <code>null</code> to disable
+     *                the metrics.
+     * @see #setMetrics(NumberPickerMetrics)
+     */
+    public static void setGlobalMetrics(@Nullable NumberPickerMetrics metrics) {
+        sGlobalMetrics = metrics;
+    }
+
+    /**
+     * @return The metrics listener in effect, or <code>null</code>.
+     */
+    private NumberPickerMetrics getMetrics() {
+        return (mMetrics != null) ? mMetrics : sGlobalMetrics;
+    }
+
+    /**
+     * Sets the engine used to settle the selector wheel on the nearest item
+     * after dragging or flinging.
+     * <p>
+     * By default the wheel settles with a fixed 800 ms decelerating animation.
+     * With an engine such as {@link SpringSettleEngine}, the settle time
+     * depends on the remaining offset and the velocity of the wheel, and the
+     * engine takes over the end of a fling while the wheel is still moving.
+     * </p>
+     *
+     * @param settleEngine The settle engine, or <code>null</code> to use the
+     *                     default animation.
+     */
+    public void setSettleEngine(@Nullable SettleEngine settleEngine) {
+        mSettleEngine = settleEngine;
+    }
+
+    /**
+     * Gets the engine used to settle the selector wheel.
+     *
+     * @return The settle engine, or <code>null</code> if the default animation is used.
+     */
+    @Nullable
+    public SettleEngine getSettleEngine() {
+        return mSettleEngine;
+    }
+
+    /**
+     * Set listener to be notified of the value a fling is going to settle on.
+     *
+     * @param onFlingListener The listener.
+     * @see #getPredictedSettleValue()
+     */
+    public void setOnFlingListener(@Nullable OnFlingListener onFlingListener) {
+        mOnFlingListener = onFlingListener;
+    }
+
+    /**
+     * Sets the listener to be notified of the frame timings of each drag or
+     * fling gesture: the intervals between frames and the time spent drawing
+     * the picker, while the scroll state is
+     * {@link OnScrollListener#SCROLL_STATE_TOUCH_SCROLL} or
+     * {@link OnScrollListener#SCROLL_STATE_FLING}.
+     * <p>
+     * Frames are only monitored while a listener is set.
+     * </p>
+     *
+     * @param onFrameStatsListener The listener, or <code>null</code> to stop
+     *                             monitoring the frames.
+     */
+    public void setOnFrameStatsListener(@Nullable OnFrameStatsListener onFrameStatsListener) {
+        mOnFrameStatsListener = onFrameStatsListener;
+        if (onFrameStatsListener == null) {
+            mFrameMonitor = null;
+        } else if (mFrameMonitor == null) {
+            mFrameMonitor = new FrameMonitor();
+        }
+    }
+
+    /**
+     * Returns the value the picker is going to settle on once the running
+     * fling or adjustment animation ends. If the picker is not animating,
+     * the current value is returned.
+     *
+     * @return The predicted value.
+     */
+    public int getPredictedSettleValue() {
+        return WheelMath.saturatedCast(getPredictedSettleLongValue());
+    }
+
+    /**
+     * @see #getPredictedSettleValue()
+     */
+    long getPredictedSettleLongValue() {
+        final WheelScroller scroller;
+        if (!mFlingScroller.isFinished()) {
+            scroller = mFlingScroller;
+        } else if (!mAdjustScroller.isFinished()) {
+            scroller = mAdjustScroller;
+        } else {
+            return mValue;
+        }
+        return getValueAfterSteps(mValue, getRemainingScrollSteps(scroller));
+    }
+
+    /**
+     * @return The number of items the value is going to change by until the
+     * wheel settles after the remaining scroll of the given scroller.
+     */
+    private long getRemainingScrollSteps(WheelScroller scroller) {
+        if (mSelectorElementHeight == 0) {
+            return 0;
+        }
+        final long remainingScroll = (long) scroller.getFinalY() - scroller.getCurrY();
+        final long offset = (long) mCurrentScrollOffset - mInitialScrollOffset + remainingScroll;
+        // The wheel settles on the nearest item and scrolling down shows the
+        // preceding values.
+        return -Math.round((double) offset / mSelectorElementHeight);
+    }
+
+    /**
+     * @return The value reached by moving the given number of items from
+     * the given value, honoring the wrap rules.
+     */
+    long getValueAfterSteps(long value, long steps) {
+        return mWheel.getValueAfterSteps(value, steps);
+    }
+
+    /**
+     * @return Whether the value can be incremented.
+     */
+    boolean hasNextValue() {
+        return mWheel.hasNextValue(mValue);
+    }
+
+    /**
+     * @return Whether the value can be decremented.
+     */
+    boolean hasPreviousValue() {
+        return mWheel.hasPreviousValue(mValue);
+    }
+
+    /**
+     * @return The index of the given value in the displayed values.
+     */
+    int getDisplayedValueIndex(long value) {
+        return mWheel.getIndexOf(value);
+    }
+
+    /**
+     * Formats and caches the labels along the path a fling is going to take
+     * before the wheel settles on the given value.
+     */
+    private void prefetchSelectorLabels(long settleValue, long steps) {
+        final int direction = (steps > 0) ? 1 : -1;
+        final long count = Math.min(Math.abs(steps), SELECTOR_LABEL_PREFETCH_COUNT);
+        // the items leading to the settled value, and the neighbor shown past it
+        for (long i = -SELECTOR_MIDDLE_ITEM_INDEX; i <= count; i++) {
+            ensureCachedScrollSelectorValue(getValueAfterSteps(settleValue, -direction * i));
+        }
+    }
+
     /**
      * Set the formatter to be used for formatting the current value.
      * <p>
@@ -1060,6 +1985,14 @@ public class NumberPicker extends LinearLayoutCompat {
             return;
         }
         mFormatter = formatter;
+        refreshLabels();
+    }
+
+    /**
+     * Drops the cached labels and formats the visible ones again.
+     */
+    void refreshLabels() {
+        mSelectorIndexToStringCache.clear();
         initializeSelectorWheelIndices();
         updateInputTextView();
     }
@@ -1093,9 +2026,131 @@ public class NumberPicker extends LinearLayoutCompat {
      * @see #setMaxValue(int)
      */
     public void setValue(int value) {
+        setLongValue(value);
+    }
+
+    /**
+     * @see #setValue(int)
+     */
+    void setLongValue(long value) {
+        // the value set supersedes a running smooth scroll
+        cancelSmoothScroll();
         setValueInternal(value, false);
     }
 
+    /**
+     * Scrolls the selector wheel to the given value with an animation.
+     *
+     * @param value The value to scroll to.
+     * @see #smoothScrollToValue(int, int)
+     */
+    public void smoothScrollToValue(int value) {
+        smoothScrollToValue(value, DEFAULT_SMOOTH_SCROLL_DURATION);
+    }
+
+    /**
+     * Scrolls the selector wheel to the given value with an animation.
+     * <p>
+     * The animation takes about the same time regardless of the distance.
+     * If the value is far away, the intermediate items are skipped and only
+     * the last few items are animated. The value change listener is notified
+     * once, when the animation ends or is interrupted by a touch.
+     * </p>
+     * <p>
+     * The value is wrapped or clamped the same way as {@link #setValue(int)}.
+     * If the selector wheel wraps, it scrolls in the shorter direction.
+     * </p>
+     *
+     * @param value          The value to scroll to.
+     * @param durationMillis The desired duration of the animation. It is
+     *                       clamped to a range of 100 ms to 1000 ms.
+     */
+    public void smoothScrollToValue(int value, int durationMillis) {
+        smoothScrollToLongValue(value, durationMillis);
+    }
+
+    /**
+     * @see #smoothScrollToValue(int, int)
+     */
+    void smoothScrollToLongValue(long value, int durationMillis) {
+        finishScrollAnimations();
+        // go the shorter way around
+        smoothScrollBySteps(mWheel.distance(mValue, getValueAfterSteps(value, 0)), durationMillis);
+    }
+
+    /**
+     * Moves the running scroll animations to their ends right away.
+     */
+    private void finishScrollAnimations() {
+        mInputText.setVisibility(View.INVISIBLE);
+        if (!moveToFinalScrollerPosition(mFlingScroller)) {
+            moveToFinalScrollerPosition(mAdjustScroller);
+        }
+        finishSmoothScroll();
+    }
+
+    /**
+     * Scrolls the wheel by the given signed number of items with an
+     * animation. Only the last few items are animated.
+     */
+    private void smoothScrollBySteps(long steps, int durationMillis) {
+        final long target = getValueAfterSteps(mValue, steps);
+        if (steps == 0) {
+            return;
+        }
+        if (mSelectorElementHeight == 0) {
+            // not laid out yet
+            setValueInternal(target, true);
+            return;
+        }
+
+        mSmoothScrolling = true;
+        mSmoothScrollStartValue = mValue;
+
+        // the distance may saturate to Long.MIN_VALUE, so don't use Math.abs()
+        if (steps > MAX_SMOOTH_SCROLL_ANIMATED_ITEM_COUNT
+                || steps < -MAX_SMOOTH_SCROLL_ANIMATED_ITEM_COUNT) {
+            // skip ahead without formatting or notifying the intermediate values
+            steps = WheelMath.clamp(steps,
+                    -MAX_SMOOTH_SCROLL_ANIMATED_ITEM_COUNT, MAX_SMOOTH_SCROLL_ANIMATED_ITEM_COUNT);
+            setValueInternal(getValueAfterSteps(target, -steps), false);
+        }
+        final int duration = Math.max(MIN_SMOOTH_SCROLL_DURATION,
+                Math.min(durationMillis, MAX_SMOOTH_SCROLL_DURATION));
+        mPreviousScrollerY = 0;
+        mFlingScroller.startScroll(0, (int) (-steps * mSelectorElementHeight), duration);
+        scheduleScrollAnimation();
+    }
+
+    /**
+     * Stops the current smooth scroll, if any, without notifying the value
+     * change made by it.
+     */
+    private void cancelSmoothScroll() {
+        if (!mSmoothScrolling) {
+            return;
+        }
+        mSmoothScrolling = false;
+        mFlingScroller.forceFinished(true);
+        mAdjustScroller.forceFinished(true);
+        mCurrentScrollOffset = mInitialScrollOffset;
+        invalidate();
+    }
+
+    /**
+     * Ends the current smooth scroll, if any, and notifies the value change
+     * made by it.
+     */
+    private void finishSmoothScroll() {
+        if (!mSmoothScrolling) {
+            return;
+        }
+        mSmoothScrolling = false;
+        if (mValue != mSmoothScrollStartValue) {
+            notifyChange(mSmoothScrollStartValue, mValue);
+        }
+    }
+
     @Override
     public boolean performClick() {
         if (!super.performClick()) {
@@ -1140,6 +2195,17 @@ public class NumberPicker extends LinearLayoutCompat {
      * Computes the max width if no such specified as an attribute.
      */
     private void tryComputeMaxWidth() {
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#tryComputeMaxWidth");
+        try {
+            tryComputeMaxWidthInternal();
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
+            }
+        }
+    }
+
+    private void tryComputeMaxWidthInternal() {
         if (!mComputeMaxWidth) {
             return;
         }
@@ -1153,21 +2219,30 @@ public class NumberPicker extends LinearLayoutCompat {
                 }
             }
             int numberOfDigits = 0;
-            int current = mMaxValue;
-            while (current > 0) {
-                numberOfDigits++;
-                current = current / 10;
+            if (mMaxLabelLength > 0) {
+                numberOfDigits = mMaxLabelLength;
+            } else if (mWheel.isUnbounded()) {
+                numberOfDigits = DEFAULT_UNBOUNDED_MAX_LABEL_LENGTH;
+            } else {
+                long current = mWheel.getMaxValue();
+                while (current > 0) {
+                    numberOfDigits++;
+                    current = current / 10;
+                }
             }
             maxTextWidth = (int) (numberOfDigits * maxDigitWidth);
         } else {
-            final int valueCount = mDisplayedValues.length;
-            for (int i = 0; i < valueCount; i++) {
-                final float textWidth = mSelectorWheelPaint.measureText(mDisplayedValues[i]);
-                if (textWidth > maxTextWidth) {
-                    maxTextWidth = (int) textWidth;
-                }
-            }
+            maxTextWidth = computeDisplayedValuesMaxTextWidth(mDisplayedValues);
         }
+        updateMaxWidth(maxTextWidth);
+    }
+
+    /**
+     * Updates the max width from the given max text width.
+     *
+     * @return Whether the max width has been changed.
+     */
+    private boolean updateMaxWidth(int maxTextWidth) {
         maxTextWidth += mInputText.getPaddingLeft() + mInputText.getPaddingRight();
         if (mMaxWidth != maxTextWidth) {
             if (maxTextWidth > mMinWidth) {
@@ -1176,7 +2251,81 @@ public class NumberPicker extends LinearLayoutCompat {
                 mMaxWidth = mMinWidth;
             }
             invalidate();
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Computes the max text width of the given displayed values. If a background
+     * executor is set and the values are many, a provisional width measured from
+     * a sample of the values is returned and the exact width is delivered later.
+     */
+    private int computeDisplayedValuesMaxTextWidth(String[] displayedValues) {
+        if (mMeasureDisplayedValuesCommand != null) {
+            mMeasureDisplayedValuesCommand.cancel();
+            mMeasureDisplayedValuesCommand = null;
+        }
+        final Integer cachedTextWidth = mDisplayedValuesTextWidthCache.get(displayedValues);
+        if (cachedTextWidth != null) {
+            return cachedTextWidth;
+        }
+        final int valueCount = displayedValues.length;
+        if (mDisplayedValuesMeasureExecutor == null
+                || valueCount <= DISPLAYED_VALUES_MEASURE_SAMPLE_COUNT) {
+            final int textWidth = measureMaxTextWidth(mSelectorWheelPaint, displayedValues, 1);
+            mDisplayedValuesTextWidthCache.put(displayedValues, textWidth);
+            return textWidth;
+        }
+        final int sampleStep = valueCount / DISPLAYED_VALUES_MEASURE_SAMPLE_COUNT;
+        final int provisionalTextWidth = Math.max(
+                measureMaxTextWidth(mSelectorWheelPaint, displayedValues, sampleStep),
+                (int) mSelectorWheelPaint.measureText(displayedValues[valueCount - 1]));
+        if (mMainThreadHandler == null) {
+            mMainThreadHandler = new Handler(Looper.getMainLooper());
+        }
+        mMeasureDisplayedValuesCommand = new MeasureDisplayedValuesCommand(displayedValues);
+        mDisplayedValuesMeasureExecutor.execute(mMeasureDisplayedValuesCommand);
+        return provisionalTextWidth;
+    }
+
+    /**
+     * Called on the main thread when a background measurement has completed.
+     */
+    private void onDisplayedValuesMeasured(String[] displayedValues, int maxTextWidth) {
+        mMeasureDisplayedValuesCommand = null;
+        mDisplayedValuesTextWidthCache.put(displayedValues, maxTextWidth);
+        if (mComputeMaxWidth && mDisplayedValues == displayedValues && updateMaxWidth(maxTextWidth)) {
+            requestLayout();
+        }
+    }
+
+    private static int measureMaxTextWidth(Paint paint, String[] values, int step) {
+        int maxTextWidth = 0;
+        for (int i = 0; i < values.length; i += step) {
+            final float textWidth = paint.measureText(values[i]);
+            if (textWidth > maxTextWidth) {
+                maxTextWidth = (int) textWidth;
+            }
+        }
+        return maxTextWidth;
+    }
+
+    /**
+     * Sets the executor used to measure the max width of the displayed values.
+     * <p>
+     * By default all the displayed values are measured synchronously in
+     * {@link #setDisplayedValues(String[])}. If an executor is set, large
+     * displayed values are measured on it; the picker is laid out with a width
+     * estimated from a sample of the values and then laid out again once the
+     * measurement has completed. Measured widths are cached per array instance,
+     * so setting the same array again costs nothing.
+     * </p>
+     *
+     * @param executor The executor, or <code>null</code> to measure synchronously.
+     */
+    public void setDisplayedValuesMeasureExecutor(@Nullable Executor executor) {
+        mDisplayedValuesMeasureExecutor = executor;
     }
 
     /**
@@ -1187,7 +2336,7 @@ public class NumberPicker extends LinearLayoutCompat {
      * @see #getMaxValue()
      */
     public boolean getWrapSelectorWheel() {
-        return mWrapSelectorWheel;
+        return mWheel.isWrapping();
     }
 
     /**
@@ -1208,7 +2357,7 @@ public class NumberPicker extends LinearLayoutCompat {
      * @param wrapSelectorWheel Whether to wrap.
      */
     public void setWrapSelectorWheel(boolean wrapSelectorWheel) {
-        mWrapSelectorWheelPreferred = wrapSelectorWheel;
+        mWheel.setWrapPreferred(wrapSelectorWheel);
         updateWrapSelectorWheel();
     }
 
@@ -1220,12 +2369,11 @@ public class NumberPicker extends LinearLayoutCompat {
      * value) gets updated.
      */
     private void updateWrapSelectorWheel() {
-        final boolean wrappingAllowed = (mMaxValue - mMinValue) >= mSelectorIndices.length;
-        mWrapSelectorWheel = wrappingAllowed && mWrapSelectorWheelPreferred;
+        mWheel.updateWrapping(mSelectorIndices.length);
     }
 
     private void handleNegativeValueRange() {
-        boolean negative = mMinValue < 0 || mMaxValue < 0;
+        boolean negative = mWheel.isUnbounded() || mWheel.getMinValue() < 0 || mWheel.getMaxValue() < 0;
 
         mAcceptedChars = (negative) ? DIGIT_CHARACTERS_WITH_NEGATIVE_SIGN : DIGIT_CHARACTERS;
 
@@ -1239,6 +2387,174 @@ public class NumberPicker extends LinearLayoutCompat {
         }
     }
 
+    /**
+     * Returns the number of items the page up and page down keys move by.
+     *
+     * @return The page size.
+     * @see #setPageSize(int)
+     */
+    public int getPageSize() {
+        return mPageSize;
+    }
+
+    /**
+     * Sets the number of items the page up and page down keys move by. It
+     * is also the largest step of a held arrow key, which accelerates.
+     * <p>
+     * The default value is 10.
+     * </p>
+     *
+     * @param pageSize The positive page size.
+     */
+    public void setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        mPageSize = pageSize;
+    }
+
+    /**
+     * Returns whether type-to-seek is enabled.
+     *
+     * @return <code>true</code> if type-to-seek is enabled.
+     * @see #setTypeToSeekEnabled(boolean)
+     */
+    public boolean isTypeToSeekEnabled() {
+        return mTypeToSeekEnabled;
+    }
+
+    /**
+     * Sets whether keys typed on a hardware keyboard while the picker has
+     * focus jump to the matching value, without going through the input
+     * text and the soft input.
+     * <p>
+     * Digits typed within a second of each other form a number, and the
+     * picker jumps to the nearest value in range. With displayed values,
+     * letters and digits jump to the first displayed value starting with
+     * them. Typing is left to the input text while the soft input is shown
+     * for editing.
+     * </p>
+     * <p>
+     * The default value is <code>true</code>.
+     * </p>
+     *
+     * @param typeToSeekEnabled Whether type-to-seek is enabled.
+     */
+    public void setTypeToSeekEnabled(boolean typeToSeekEnabled) {
+        mTypeToSeekEnabled = typeToSeekEnabled;
+    }
+
+    /**
+     * Returns the min interval between the accessibility events of value
+     * changes while the selector wheel scrolls.
+     *
+     * @return The interval in milliseconds.
+     * @see #setAccessibilityEventInterval(int)
+     */
+    public int getAccessibilityEventInterval() {
+        return mAccessibilityEventInterval;
+    }
+
+    /**
+     * Sets the min interval between the accessibility events of value changes
+     * while the selector wheel is dragged or flung, so that accessibility
+     * services are not flooded. The value the wheel settles on is always
+     * announced.
+     * <p>
+     * The default value is {@value #DEFAULT_ACCESSIBILITY_EVENT_INTERVAL} ms.
+     * </p>
+     *
+     * @param intervalMillis The interval in milliseconds, 0 to send all the events.
+     */
+    public void setAccessibilityEventInterval(int intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("intervalMillis must not be negative");
+        }
+        mAccessibilityEventInterval = intervalMillis;
+        if (mAccessibilityNodeProviderCompat != null) {
+            mAccessibilityNodeProviderCompat.setEventIntervalMillis(intervalMillis);
+        }
+    }
+
+    /**
+     * Returns whether scrubbing is enabled.
+     *
+     * @return <code>true</code> if scrubbing is enabled.
+     * @see #setScrubEnabled(boolean)
+     */
+    public boolean isScrubEnabled() {
+        return mScrubEnabled;
+    }
+
+    /**
+     * Sets whether a long press on the current value followed by a drag
+     * scrubs through the whole range.
+     * <p>
+     * While scrubbing, the distance dragged from the long press maps to an
+     * exponentially growing number of items, so small drags step through
+     * nearby values and a drag of half the screen height reaches the ends of
+     * any range. The value change listener is notified once, when the finger
+     * is lifted. When scrubbing is enabled, the long press no longer shows
+     * the soft input; a tap still does.
+     * </p>
+     * <p>
+     * The default value is <code>false</code>.
+     * </p>
+     *
+     * @param scrubEnabled Whether scrubbing is enabled.
+     */
+    public void setScrubEnabled(boolean scrubEnabled) {
+        mScrubEnabled = scrubEnabled;
+    }
+
+    /**
+     * Starts scrubbing from the current value and touch position.
+     */
+    private void startScrub() {
+        mScrubbing = true;
+        mScrubStartValue = mValue;
+        mScrubStartY = mLastDownOrMoveEventY;
+        mPerformClickOnTap = false;
+        mCurrentScrollOffset = mInitialScrollOffset;
+        performHapticFeedback(HapticFeedbackConstants.LONG_PRESS);
+        onScrollStateChange(OnScrollListener.SCROLL_STATE_TOUCH_SCROLL);
+        invalidate();
+    }
+
+    /**
+     * Moves the value to the one the given touch position maps to. This is
+     * constant time regardless of the distance and does not notify the value
+     * change listener.
+     */
+    private void scrubTo(float y) {
+        final float scrubDistance = getResources().getDisplayMetrics().heightPixels / 2f;
+        final double fraction = Math.min(Math.abs(y - mScrubStartY) / scrubDistance, 1.0);
+        final long first = mWheel.getFirstPosition();
+        final long last = mWheel.getLastPosition();
+        // the number of items the end of the drag reaches, as unsigned
+        final long span = last - first;
+        final double maxSteps = (span >= 0) ? span : span + 0x1p64;
+        long steps = Math.round(Math.expm1(Math.log1p(maxSteps) * fraction));
+        if (y > mScrubStartY) {
+            // dragging down shows the preceding values
+            steps = -steps;
+        }
+        final long start = mWheel.toPosition(mScrubStartValue);
+        final long position = WheelMath.add(start, steps, first, last, false);
+        setValueInternal(mWheel.toValue(position), false);
+    }
+
+    /**
+     * Ends scrubbing and notifies the value change made by it.
+     */
+    private void finishScrub() {
+        mScrubbing = false;
+        onScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
+        if (mValue != mScrubStartValue) {
+            notifyChange(mScrubStartValue, mValue);
+        }
+    }
+
     /**
      * Sets the speed at which the numbers be incremented and decremented when
      * the up and down buttons are long pressed respectively.
@@ -1259,6 +2575,13 @@ public class NumberPicker extends LinearLayoutCompat {
      * @return The value.
      */
     public int getValue() {
+        return WheelMath.saturatedCast(mValue);
+    }
+
+    /**
+     * @see #getValue()
+     */
+    long getLongValue() {
         return mValue;
     }
 
@@ -1268,7 +2591,14 @@ public class NumberPicker extends LinearLayoutCompat {
      * @return The min value
      */
     public int getMinValue() {
-        return mMinValue;
+        return WheelMath.saturatedCast(mWheel.getMinValue());
+    }
+
+    /**
+     * @see #getMinValue()
+     */
+    long getLongMinValue() {
+        return mWheel.getMinValue();
     }
 
     /**
@@ -1282,15 +2612,23 @@ public class NumberPicker extends LinearLayoutCompat {
      *                 {@link #getMaxValue()} - {@link #getMinValue()} + 1.
      */
     public void setMinValue(int minValue) {
-        if (mMinValue == minValue) {
+        setLongMinValue(minValue);
+    }
+
+    /**
+     * @see #setMinValue(int)
+     */
+    void setLongMinValue(long minValue) {
+        if (mWheel.getValueSet() == null && mWheel.getMinValue() == minValue) {
             return;
         }
-        mMinValue = minValue;
-        if (mMinValue > mValue) {
-            mValue = mMinValue;
+        mWheel.setMinValue(minValue);
+        if (minValue > mValue) {
+            mValue = minValue;
         }
         handleNegativeValueRange();
         updateWrapSelectorWheel();
+        mSelectorIndexToStringCache.clear();
         initializeSelectorWheelIndices();
         updateInputTextView();
         tryComputeMaxWidth();
@@ -1303,7 +2641,14 @@ public class NumberPicker extends LinearLayoutCompat {
      * @return The max value.
      */
     public int getMaxValue() {
-        return mMaxValue;
+        return WheelMath.saturatedCast(mWheel.getMaxValue());
+    }
+
+    /**
+     * @see #getMaxValue()
+     */
+    long getLongMaxValue() {
+        return mWheel.getMaxValue();
     }
 
     /**
@@ -1317,15 +2662,141 @@ public class NumberPicker extends LinearLayoutCompat {
      *                 {@link #getMaxValue()} - {@link #getMinValue()} + 1.
      */
     public void setMaxValue(int maxValue) {
-        if (mMaxValue == maxValue) {
+        setLongMaxValue(maxValue);
+    }
+
+    /**
+     * @see #setMaxValue(int)
+     */
+    void setLongMaxValue(long maxValue) {
+        if (mWheel.getValueSet() == null && mWheel.getMaxValue() == maxValue) {
+            return;
+        }
+        mWheel.setMaxValue(maxValue);
+        if (maxValue < mValue) {
+            mValue = maxValue;
+        }
+        handleNegativeValueRange();
+        updateWrapSelectorWheel();
+        mSelectorIndexToStringCache.clear();
+        initializeSelectorWheelIndices();
+        updateInputTextView();
+        tryComputeMaxWidth();
+        invalidate();
+    }
+
+    /**
+     * Returns whether the picker is in the unbounded mode.
+     *
+     * @return <code>true</code> if the picker has no min and max value.
+     * @see #setUnbounded(boolean)
+     */
+    public boolean isUnbounded() {
+        return mWheel.isUnbounded();
+    }
+
+    /**
+     * Sets whether the picker has no min and max value, e.g. for relative
+     * offsets or counters.
+     * <p>
+     * In the unbounded mode the min value, the max value and the value set
+     * are kept but ignored, the wheel does not wrap, and every label is
+     * produced on demand by the formatter. Displayed values can't be used
+     * and are cleared. The width is computed from
+     * {@link #setMaxLabelLength(int)} instead of from the max value.
+     * </p>
+     *
+     * @param unbounded Whether the picker is unbounded.
+     */
+    public void setUnbounded(boolean unbounded) {
+        if (mWheel.isUnbounded() == unbounded) {
+            return;
+        }
+        if (unbounded) {
+            setDisplayedValues(null);
+        }
+        mWheel.setUnbounded(unbounded);
+        mValue = getValueAfterSteps(mValue, 0);
+        handleNegativeValueRange();
+        updateWrapSelectorWheel();
+        mSelectorIndexToStringCache.clear();
+        initializeSelectorWheelIndices();
+        updateInputTextView();
+        tryComputeMaxWidth();
+        invalidate();
+    }
+
+    /**
+     * Returns the max label length used for computing the width.
+     *
+     * @return The max number of characters of a label, or 0 if the width is
+     * computed from the max value.
+     * @see #setMaxLabelLength(int)
+     */
+    public int getMaxLabelLength() {
+        return mMaxLabelLength;
+    }
+
+    /**
+     * Sets the max number of characters of a label, which the width of the
+     * picker is computed for instead of from the digit count of the max value.
+     * It is measured with the widest digit and does not apply to the
+     * displayed values.
+     * <p>
+     * The default is 0, to compute the width from the max value, or from six
+     * digits in the unbounded mode.
+     * </p>
+     *
+     * @param maxLabelLength The max number of characters of a label, or 0.
+     * @see #setUnbounded(boolean)
+     */
+    public void setMaxLabelLength(int maxLabelLength) {
+        if (maxLabelLength < 0) {
+            throw new IllegalArgumentException("maxLabelLength must not be negative");
+        }
+        if (mMaxLabelLength == maxLabelLength) {
             return;
         }
-        mMaxValue = maxValue;
-        if (mMaxValue < mValue) {
-            mValue = mMaxValue;
+        mMaxLabelLength = maxLabelLength;
+        tryComputeMaxWidth();
+    }
+
+    /**
+     * Returns the set of the selectable values.
+     *
+     * @return The value set, or <code>null</code> if all the values from the
+     * min to the max value are selectable.
+     */
+    @Nullable
+    public ValueSet getValueSet() {
+        return mWheel.getValueSet();
+    }
+
+    /**
+     * Sets the selectable values, e.g. the multiples of 15 or a sorted list of
+     * allowed sizes.
+     * <p>
+     * The min and max values become the first and the last value of the set,
+     * and values that are set or typed in snap to the nearest value of the
+     * set. Setting the min or the max value afterwards discards the set.
+     * </p>
+     *
+     * @param valueSet The value set, or <code>null</code> to make all the
+     *                 values from the min to the max value selectable.
+     *                 <p>
+     *                 <strong>Note:</strong> The length of the displayed values array
+     *                 set via {@link #setDisplayedValues(String[])} must be equal to
+     *                 {@link ValueSet#size()}.
+     */
+    public void setValueSet(@Nullable ValueSet valueSet) {
+        if (mWheel.getValueSet() == valueSet) {
+            return;
         }
+        mWheel.setValueSet(valueSet);
+        mValue = getValueAfterSteps(mValue, 0);
         handleNegativeValueRange();
         updateWrapSelectorWheel();
+        mSelectorIndexToStringCache.clear();
         initializeSelectorWheelIndices();
         updateInputTextView();
         tryComputeMaxWidth();
@@ -1354,9 +2825,13 @@ public class NumberPicker extends LinearLayoutCompat {
         if (mDisplayedValues == displayedValues) {
             return;
         }
+        if (mWheel.isUnbounded() && displayedValues != null) {
+            throw new IllegalStateException("Displayed values can't be used in the unbounded mode");
+        }
         mDisplayedValues = displayedValues;
         handleNegativeValueRange();
         updateInputTextView();
+        mSelectorIndexToStringCache.clear();
         initializeSelectorWheelIndices();
         tryComputeMaxWidth();
     }
@@ -1371,10 +2846,43 @@ public class NumberPicker extends LinearLayoutCompat {
         return TOP_AND_BOTTOM_FADING_EDGE_STRENGTH;
     }
 
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        // the locale used for formatting may have changed
+        refreshLabels();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAccessibilityManager.addAccessibilityStateChangeListener(mAccessibilityStateListener);
+        AccessibilityManagerCompat.addTouchExplorationStateChangeListener(
+                mAccessibilityManager, mAccessibilityStateListener);
+        // the state may have changed while detached
+        updateAccessibilityState();
+        if (mAccessibilityNodeProviderCompat != null) {
+            mAccessibilityNodeProviderCompat.onAttachedToWindow();
+        }
+        if (!(mFlingScroller.isFinished() && mAdjustScroller.isFinished())) {
+            scheduleScrollAnimation();
+        }
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        mAccessibilityManager.removeAccessibilityStateChangeListener(mAccessibilityStateListener);
+        AccessibilityManagerCompat.removeTouchExplorationStateChangeListener(
+                mAccessibilityManager, mAccessibilityStateListener);
+        if (mAccessibilityNodeProviderCompat != null) {
+            mAccessibilityNodeProviderCompat.onDetachedFromWindow();
+        }
         removeAllCallbacks();
+        final AnimationFrameDriver frameDriver = AnimationFrameDriver.getInstance();
+        if (frameDriver != null) {
+            frameDriver.remove(this);
+        }
     }
 
     @CallSuper
@@ -1399,6 +2907,36 @@ public class NumberPicker extends LinearLayoutCompat {
 
     @Override
     protected void onDraw(Canvas canvas) {
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#onDraw");
+        try {
+            onDrawInternal(canvas);
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
+            }
+        }
+    }
+
+    private void onDrawInternal(Canvas canvas) {
+        final NumberPickerMetrics metrics = getMetrics();
+        final FrameMonitor frameMonitor =
+                (mFrameMonitor != null && mFrameMonitor.isRunning()) ? mFrameMonitor : null;
+        if (metrics == null && frameMonitor == null) {
+            drawSelectorWheel(canvas);
+            return;
+        }
+        final long startTime = System.nanoTime();
+        drawSelectorWheel(canvas);
+        final long duration = System.nanoTime() - startTime;
+        if (metrics != null) {
+            metrics.onDraw(this, duration);
+        }
+        if (frameMonitor != null) {
+            frameMonitor.onDraw(duration);
+        }
+    }
+
+    private void drawSelectorWheel(Canvas canvas) {
         final boolean showSelectorWheel = mHideWheelUntilFocused ? hasFocus() : true;
         float x = (getRight() - getLeft()) / 2;
         float y = mCurrentScrollOffset;
@@ -1422,10 +2960,11 @@ public class NumberPicker extends LinearLayoutCompat {
             }
         }
         // draw the selector wheel
-        int[] selectorIndices = mSelectorIndices;
+        long[] selectorIndices = mSelectorIndices;
         for (int i = 0; i < selectorIndices.length; i++) {
-            int selectorIndex = selectorIndices[i];
-            String scrollSelectorValue = mSelectorIndexToStringCache.get(selectorIndex);
+            // a prefetch may have evicted the label
+            String scrollSelectorValue = isSelectorSlotEmpty(i)
+                    ? "" : ensureCachedScrollSelectorValue(mWheel.toValue(selectorIndices[i]));
             // Do not draw the middle item if input is visible since the input
             // is shown only if the wheel is static and it covers the middle
             // item. Otherwise, if the user starts editing the text via the
@@ -1458,11 +2997,23 @@ public class NumberPicker extends LinearLayoutCompat {
         event.setClassName(NumberPicker.class.getName());
 
         event.setScrollable(true);
-        event.setScrollY((mMinValue + mValue) * mSelectorElementHeight);
+        event.setScrollY(saturatedScrollY(mWheel.toPosition(mValue) - mWheel.getFirstPosition()));
 
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH_MR1) {
-            event.setMaxScrollY((mMaxValue - mMinValue) * mSelectorElementHeight);
+            event.setMaxScrollY(saturatedScrollY(mWheel.getLastPosition() - mWheel.getFirstPosition()));
+        }
+    }
+
+    /**
+     * @return The scroll position of the given unsigned number of items,
+     * clamped to the int range.
+     */
+    private int saturatedScrollY(long itemCount) {
+        if (itemCount < 0 || (mSelectorElementHeight > 0
+                && itemCount > Integer.MAX_VALUE / mSelectorElementHeight)) {
+            return Integer.MAX_VALUE;
         }
+        return (int) (itemCount * mSelectorElementHeight);
     }
 
     AccessibilityNodeProviderCompat getAccessibilityNodeProviderCompat() {
@@ -1529,44 +3080,92 @@ public class NumberPicker extends LinearLayoutCompat {
      * these indices.
      */
     private void initializeSelectorWheelIndices() {
-        mSelectorIndexToStringCache.clear();
-        int[] selectorIndices = mSelectorIndices;
-        int current = getValue();
-        for (int i = 0; i < mSelectorIndices.length; i++) {
-            int selectorIndex = current + (i - SELECTOR_MIDDLE_ITEM_INDEX);
-            if (mWrapSelectorWheel) {
-                selectorIndex = getWrappedSelectorIndex(selectorIndex);
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#initializeSelectorWheelIndices");
+        try {
+            initializeSelectorWheelIndicesInternal();
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
             }
-            selectorIndices[i] = selectorIndex;
-            ensureCachedScrollSelectorValue(selectorIndices[i]);
         }
     }
 
+    private void initializeSelectorWheelIndicesInternal() {
+        long[] selectorIndices = mSelectorIndices;
+        // the slots past the ends of a non-wrapping range repeat the end
+        // position and are drawn empty, see isSelectorSlotEmpty()
+        mWheel.fillSelectorIndices(selectorIndices, mValue, SELECTOR_MIDDLE_ITEM_INDEX);
+        for (int i = 0; i < selectorIndices.length; i++) {
+            ensureCachedScrollSelectorValue(mWheel.toValue(selectorIndices[i]));
+        }
+    }
+
+    /**
+     * @return Whether the given slot of the selector wheel is past the ends
+     * of a non-wrapping range.
+     */
+    private boolean isSelectorSlotEmpty(int slot) {
+        return mWheel.isSlotEmpty(
+                mSelectorIndices[SELECTOR_MIDDLE_ITEM_INDEX], slot - SELECTOR_MIDDLE_ITEM_INDEX);
+    }
+
     /**
      * Sets the current value of this NumberPicker.
      *
      * @param current      The new value of the NumberPicker.
      * @param notifyChange Whether to notify if the current value changed.
      */
-    private void setValueInternal(int current, boolean notifyChange) {
+    private void setValueInternal(long current, boolean notifyChange) {
+        setValueInternal(current, notifyChange, false);
+    }
+
+    /**
+     * Sets the current value of this NumberPicker.
+     *
+     * @param current           The new value of the NumberPicker.
+     * @param notifyChange      Whether to notify if the current value changed.
+     * @param fromSelectorWheel Whether the value is the one in the middle of
+     *                          the selector wheel, which is already in range
+     *                          and does not need the wheel to be refilled.
+     */
+    private void setValueInternal(long current, boolean notifyChange, boolean fromSelectorWheel) {
+        final boolean traced = NumberPickerTrace.beginSection("NumberPicker#setValueInternal");
+        try {
+            updateValueInternal(current, notifyChange, fromSelectorWheel);
+        } finally {
+            if (traced) {
+                NumberPickerTrace.endSection();
+            }
+        }
+    }
+
+    private void updateValueInternal(long current, boolean notifyChange, boolean fromSelectorWheel) {
         if (mValue == current) {
             return;
         }
-        // Wrap around the values if we go past the start or end
-        if (mWrapSelectorWheel) {
-            current = getWrappedSelectorIndex(current);
-        } else {
-            current = Math.max(current, mMinValue);
-            current = Math.min(current, mMaxValue);
+        if (!fromSelectorWheel) {
+            // Wrap around the values if we go past the start or end
+            current = getValueAfterSteps(current, 0);
         }
-        int previous = mValue;
+        long previous = mValue;
         mValue = current;
+        if (mScrollState != OnScrollListener.SCROLL_STATE_IDLE) {
+            mGestureValueChanges++;
+        }
         updateInputTextView();
-        if (notifyChange) {
+        if (notifyChange && !mSmoothScrolling) {
             notifyChange(previous, current);
         }
-        initializeSelectorWheelIndices();
+        if (!fromSelectorWheel) {
+            initializeSelectorWheelIndices();
+        }
         invalidate();
+        if (mAccessibilityNodeProviderCompat != null) {
+            // throttled by the provider while scrolling
+            mAccessibilityNodeProviderCompat.sendAccessibilityEventForVirtualView(
+                    AccessibilityNodeProviderImpl.VIRTUAL_VIEW_ID_INPUT,
+                    AccessibilityEvent.TYPE_VIEW_SELECTED);
+        }
     }
 
     /**
@@ -1581,18 +3180,19 @@ public class NumberPicker extends LinearLayoutCompat {
         if (!moveToFinalScrollerPosition(mFlingScroller)) {
             moveToFinalScrollerPosition(mAdjustScroller);
         }
+        finishSmoothScroll();
         mPreviousScrollerY = 0;
         if (increment) {
-            mFlingScroller.startScroll(0, 0, 0, -mSelectorElementHeight, SNAP_SCROLL_DURATION);
+            mFlingScroller.startScroll(0, -mSelectorElementHeight, SNAP_SCROLL_DURATION);
         } else {
-            mFlingScroller.startScroll(0, 0, 0, mSelectorElementHeight, SNAP_SCROLL_DURATION);
+            mFlingScroller.startScroll(0, mSelectorElementHeight, SNAP_SCROLL_DURATION);
         }
-        invalidate();
+        scheduleScrollAnimation();
     }
 
     private void initializeSelectorWheel() {
         initializeSelectorWheelIndices();
-        int[] selectorIndices = mSelectorIndices;
+        long[] selectorIndices = mSelectorIndices;
         int totalTextHeight = selectorIndices.length * mTextSize;
         float totalTextGapHeight = (getBottom() - getTop()) - totalTextHeight;
         float textGapCount = selectorIndices.length;
@@ -1615,7 +3215,8 @@ public class NumberPicker extends LinearLayoutCompat {
     /**
      * Callback invoked upon completion of a given <code>scroller</code>.
      */
-    private void onScrollerFinished(Scroller scroller) {
+    private void onScrollerFinished(WheelScroller scroller) {
+        reportScrollerFinished(scroller);
         if (scroller == mFlingScroller) {
             if (!ensureScrollWheelAdjusted()) {
                 updateInputTextView();
@@ -1626,6 +3227,28 @@ public class NumberPicker extends LinearLayoutCompat {
                 updateInputTextView();
             }
         }
+        if (mFlingScroller.isFinished() && mAdjustScroller.isFinished()) {
+            finishSmoothScroll();
+        }
+    }
+
+    /**
+     * Reports the duration of the fling or settle animation which has just
+     * ended to the metrics listener, if it was set when the animation started.
+     */
+    private void reportScrollerFinished(WheelScroller scroller) {
+        final NumberPickerMetrics metrics = getMetrics();
+        if (scroller == mFlingScroller) {
+            if (metrics != null && mFlingStartTime != 0) {
+                metrics.onFlingFinished(this, SystemClock.uptimeMillis() - mFlingStartTime);
+            }
+            mFlingStartTime = 0;
+        } else {
+            if (metrics != null && mSettleStartTime != 0) {
+                metrics.onSettleFinished(this, SystemClock.uptimeMillis() - mSettleStartTime);
+            }
+            mSettleStartTime = 0;
+        }
     }
 
     /**
@@ -1639,90 +3262,152 @@ public class NumberPicker extends LinearLayoutCompat {
         if (mOnScrollListener != null) {
             mOnScrollListener.onScrollStateChange(this, scrollState);
         }
+        if (mFrameMonitor != null) {
+            updateFrameMonitor(scrollState);
+        }
+        if (scrollState == OnScrollListener.SCROLL_STATE_IDLE) {
+            if (mAccessibilityNodeProviderCompat != null) {
+                mAccessibilityNodeProviderCompat.onScrollIdle();
+            }
+            final NumberPickerMetrics metrics = getMetrics();
+            if (metrics != null) {
+                metrics.onGestureFinished(this, mGestureValueChanges);
+            }
+            mGestureValueChanges = 0;
+        }
     }
 
     /**
-     * Flings the selector with the given <code>velocityY</code>.
+     * Starts monitoring the frames when a gesture starts, and reports them
+     * when it ends.
      */
-    private void fling(int velocityY) {
-        mPreviousScrollerY = 0;
-        if (velocityY > 0) {
-            mFlingScroller.fling(0, 0, 0, velocityY, 0, 0, 0, Integer.MAX_VALUE);
-        } else {
-            mFlingScroller.fling(0, Integer.MAX_VALUE, 0, velocityY, 0, 0, 0, Integer.MAX_VALUE);
+    private void updateFrameMonitor(int scrollState) {
+        final FrameMonitor frameMonitor = mFrameMonitor;
+        if (scrollState != OnScrollListener.SCROLL_STATE_IDLE) {
+            if (!frameMonitor.isRunning()) {
+                frameMonitor.start(getFrameBudgetNanos());
+            }
+        } else if (frameMonitor.isRunning()) {
+            final FrameStats stats = frameMonitor.finish();
+            if (stats != null) {
+                mOnFrameStatsListener.onFrameStats(this, stats);
+            }
         }
-        invalidate();
     }
 
     /**
-     * @return The wrapped index <code>selectorIndex</code> value.
+     * @return The duration of a frame at the refresh rate of the display.
+     */
+    private long getFrameBudgetNanos() {
+        final Display display = ViewCompat.getDisplay(this);
+        final float refreshRate = (display != null) ? display.getRefreshRate() : 0;
+        return (long) (1e9 / ((refreshRate >= 1) ? refreshRate : 60));
+    }
+
+    /**
+     * @return Whether accessibility is enabled, without querying the
+     * accessibility manager.
+     */
+    boolean isAccessibilityEnabled() {
+        return mAccessibilityEnabled;
+    }
+
+    private void updateAccessibilityState() {
+        mAccessibilityEnabled = mAccessibilityManager.isEnabled();
+        mTouchExplorationEnabled =
+                AccessibilityManagerCompat.isTouchExplorationEnabled(mAccessibilityManager);
+    }
+
+    /**
+     * @return Whether the selector wheel is being dragged or flung.
+     */
+    boolean isScrolling() {
+        return mScrollState != OnScrollListener.SCROLL_STATE_IDLE;
+    }
+
+    /**
+     * Flings the selector with the given <code>velocityY</code>.
      */
-    int getWrappedSelectorIndex(int selectorIndex) {
-        if (selectorIndex > mMaxValue) {
-            return mMinValue + (selectorIndex - mMaxValue) % (mMaxValue - mMinValue) - 1;
-        } else if (selectorIndex < mMinValue) {
-            return mMaxValue - (mMinValue - selectorIndex) % (mMaxValue - mMinValue) + 1;
+    private void fling(int velocityY) {
+        mFlingStartTime = (getMetrics() != null) ? SystemClock.uptimeMillis() : 0;
+        mPreviousScrollerY = 0;
+        mFlingScroller.fling(0, velocityY, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        scheduleScrollAnimation();
+
+        final long steps = getRemainingScrollSteps(mFlingScroller);
+        if (steps != 0) {
+            final long settleValue = getValueAfterSteps(mValue, steps);
+            prefetchSelectorLabels(settleValue, steps);
+            if (mOnFlingListener != null) {
+                mOnFlingListener.onFling(this, WheelMath.saturatedCast(settleValue));
+            }
         }
-        return selectorIndex;
     }
 
     /**
      * Increments the <code>selectorIndices</code> whose string representations
      * will be displayed in the selector.
      */
-    private void incrementSelectorIndices(int[] selectorIndices) {
-        for (int i = 0; i < selectorIndices.length - 1; i++) {
-            selectorIndices[i] = selectorIndices[i + 1];
-        }
-        int nextScrollSelectorIndex = selectorIndices[selectorIndices.length - 2] + 1;
-        if (mWrapSelectorWheel && nextScrollSelectorIndex > mMaxValue) {
-            nextScrollSelectorIndex = mMinValue;
-        }
-        selectorIndices[selectorIndices.length - 1] = nextScrollSelectorIndex;
-        ensureCachedScrollSelectorValue(nextScrollSelectorIndex);
+    private void incrementSelectorIndices(long[] selectorIndices) {
+        mWheel.incrementSelectorIndices(selectorIndices);
+        ensureCachedScrollSelectorValue(mWheel.toValue(selectorIndices[selectorIndices.length - 1]));
     }
 
     /**
      * Decrements the <code>selectorIndices</code> whose string representations
      * will be displayed in the selector.
      */
-    private void decrementSelectorIndices(int[] selectorIndices) {
-        for (int i = selectorIndices.length - 1; i > 0; i--) {
-            selectorIndices[i] = selectorIndices[i - 1];
-        }
-        int nextScrollSelectorIndex = selectorIndices[1] - 1;
-        if (mWrapSelectorWheel && nextScrollSelectorIndex < mMinValue) {
-            nextScrollSelectorIndex = mMaxValue;
-        }
-        selectorIndices[0] = nextScrollSelectorIndex;
-        ensureCachedScrollSelectorValue(nextScrollSelectorIndex);
+    private void decrementSelectorIndices(long[] selectorIndices) {
+        mWheel.decrementSelectorIndices(selectorIndices);
+        ensureCachedScrollSelectorValue(mWheel.toValue(selectorIndices[0]));
     }
 
     /**
      * Ensures we have a cached string representation of the given <code>
      * selectorIndex</code> to avoid multiple instantiations of the same string.
+     *
+     * @return The cached string representation.
      */
-    private void ensureCachedScrollSelectorValue(int selectorIndex) {
-        SparseArray<String> cache = mSelectorIndexToStringCache;
+    String ensureCachedScrollSelectorValue(long selectorIndex) {
+        LabelCache cache = mSelectorIndexToStringCache;
         String scrollSelectorValue = cache.get(selectorIndex);
+        final NumberPickerMetrics metrics = getMetrics();
         if (scrollSelectorValue != null) {
-            return;
+            if (metrics != null) {
+                metrics.onLabelCacheHit(this);
+            }
+            return scrollSelectorValue;
         }
-        if (selectorIndex < mMinValue || selectorIndex > mMaxValue) {
+        final long startTime = (metrics != null) ? System.nanoTime() : 0;
+        if (!mWheel.isInRange(selectorIndex)) {
             scrollSelectorValue = "";
         } else {
             if (mDisplayedValues != null) {
-                int displayedValueIndex = selectorIndex - mMinValue;
+                int displayedValueIndex = getDisplayedValueIndex(selectorIndex);
                 scrollSelectorValue = mDisplayedValues[displayedValueIndex];
             } else {
                 scrollSelectorValue = formatNumber(selectorIndex);
             }
         }
         cache.put(selectorIndex, scrollSelectorValue);
+        if (metrics != null) {
+            metrics.onLabelFormatted(this, System.nanoTime() - startTime);
+        }
+        return scrollSelectorValue;
+    }
+
+    /**
+     * @return A number which changes whenever the labels of the values may
+     * have changed.
+     */
+    int getLabelGeneration() {
+        return mSelectorIndexToStringCache.getGeneration();
     }
 
-    String formatNumber(int value) {
-        return (mFormatter != null) ? mFormatter.format(value) : formatNumberWithLocale(value);
+    String formatNumber(long value) {
+        // a formatter set on a LongNumberPicker only applies to int values
+        return (mFormatter != null && value == (int) value)
+                ? mFormatter.format((int) value) : formatNumberWithLocale(value);
     }
 
     private void validateInputTextView(View v) {
@@ -1732,7 +3417,7 @@ public class NumberPicker extends LinearLayoutCompat {
             updateInputTextView();
         } else {
             // Check the new value and ensure it's in range
-            int current = getSelectedPos(str.toString());
+            long current = getSelectedPos(str.toString());
             setValueInternal(current, true);
         }
     }
@@ -1761,7 +3446,7 @@ public class NumberPicker extends LinearLayoutCompat {
          * number.
          */
         String text = (mDisplayedValues == null) ? formatNumber(mValue)
-                : mDisplayedValues[mValue - mMinValue];
+                : mDisplayedValues[getDisplayedValueIndex(mValue)];
         if (!TextUtils.isEmpty(text) && !text.equals(mInputText.getText().toString())) {
             mInputText.setText(text);
             return true;
@@ -1773,9 +3458,10 @@ public class NumberPicker extends LinearLayoutCompat {
      * Notifies the listener, if registered, of a change of the value of this
      * NumberPicker.
      */
-    private void notifyChange(int previous, int current) {
+    void notifyChange(long previous, long current) {
         if (mOnValueChangeListener != null) {
-            mOnValueChangeListener.onValueChange(this, previous, mValue);
+            mOnValueChangeListener.onValueChange(this,
+                    WheelMath.saturatedCast(previous), WheelMath.saturatedCast(mValue));
         }
     }
 
@@ -1841,38 +3527,48 @@ public class NumberPicker extends LinearLayoutCompat {
         if (mValidateInputTextViewCommand != null) {
             removeCallbacks(mValidateInputTextViewCommand);
         }
+        if (mApplyGenericScrollCommand != null) {
+            removeCallbacks(mApplyGenericScrollCommand);
+            mApplyGenericScrollCommand.mPosted = false;
+            mPendingGenericScrollItems = 0;
+        }
         mPressedStateHelper.cancel();
     }
 
     /**
      * @return The selected index given its displayed <code>value</code>.
      */
-    private int getSelectedPos(String value) {
+    private long getSelectedPos(String value) {
         if (mDisplayedValues == null) {
             try {
-                return Integer.parseInt(value);
+                return Long.parseLong(value);
             } catch (NumberFormatException e) {
                 // Ignore as if it's not a number we don't care
             }
         } else {
-            for (int i = 0; i < mDisplayedValues.length; i++) {
-                // Don't force the user to type in jan when ja will do
-                value = value.toLowerCase();
-                if (mDisplayedValues[i].toLowerCase().startsWith(value)) {
-                    return mMinValue + i;
-                }
+            final int index = findDisplayedValueIndex(value);
+            if (index >= 0) {
+                return mWheel.toValue(mWheel.getFirstPosition() + index);
             }
             /*
              * The user might have typed in a number into the month field i.e.
              * 10 instead of OCT so support that too.
              */
             try {
-                return Integer.parseInt(value);
+                return Long.parseLong(value);
             } catch (NumberFormatException e) {
                 // Ignore as if it's not a number we don't care
             }
         }
-        return mMinValue;
+        return mWheel.isUnbounded() ? mValue : mWheel.getMinValue();
+    }
+
+    /**
+     * @return The index of the first displayed value starting with the given
+     * prefix ignoring case, or -1 if there is none.
+     */
+    private int findDisplayedValueIndex(String prefix) {
+        return DisplayedValues.indexOfPrefix(mDisplayedValues, prefix);
     }
 
     /**
@@ -1939,6 +3635,18 @@ public class NumberPicker extends LinearLayoutCompat {
         @Override
         public CharSequence filter(
                 CharSequence source, int start, int end, Spanned dest, int dstart, int dend) {
+            final boolean traced = NumberPickerTrace.beginSection("NumberPicker#InputTextFilter.filter");
+            try {
+                return filterInternal(source, start, end, dest, dstart, dend);
+            } finally {
+                if (traced) {
+                    NumberPickerTrace.endSection();
+                }
+            }
+        }
+
+        private CharSequence filterInternal(
+                CharSequence source, int start, int end, Spanned dest, int dstart, int dend) {
             // We don't know what the output will be, so always cancel any
             // pending set selection command.
             if (mSetSelectionCommand != null) {
@@ -1954,19 +3662,7 @@ public class NumberPicker extends LinearLayoutCompat {
                 if ("".equals(result)) {
                     return result;
                 }
-                int val = getSelectedPos(result);
-                /*
-                 * Ensure the user can't type in a value greater than the max
-                 * allowed. We have to allow less than min as the user might
-                 * want to delete some numbers and then type a new number.
-                 * And prevent multiple-"0" that exceeds the length of upper
-                 * bound number.
-                 */
-                if (val > mMaxValue || result.length() > String.valueOf(mMaxValue).length()) {
-                    return "";
-                } else {
-                    return filtered;
-                }
+                return mWheel.acceptsTypedNumber(result) ? filtered : "";
             } else {
                 CharSequence filtered = String.valueOf(source.subSequence(start, end));
                 if (TextUtils.isEmpty(filtered)) {
@@ -1994,6 +3690,18 @@ public class NumberPicker extends LinearLayoutCompat {
      * @return Whether an adjustment has been made.
      */
     private boolean ensureScrollWheelAdjusted() {
+        return ensureScrollWheelAdjusted(0);
+    }
+
+    /**
+     * Ensures that the scroll wheel is adjusted i.e. there is no offset and the
+     * middle element is in the middle of the widget.
+     *
+     * @param velocity The current velocity of the wheel, handed over to the
+     *                 settle engine if set.
+     * @return Whether an adjustment has been made.
+     */
+    private boolean ensureScrollWheelAdjusted(float velocity) {
         // adjust to the closest value
         int deltaY = mInitialScrollOffset - mCurrentScrollOffset;
         if (deltaY != 0) {
@@ -2001,13 +3709,34 @@ public class NumberPicker extends LinearLayoutCompat {
             if (Math.abs(deltaY) > mSelectorElementHeight / 2) {
                 deltaY += (deltaY > 0) ? -mSelectorElementHeight : mSelectorElementHeight;
             }
-            mAdjustScroller.startScroll(0, 0, 0, deltaY, SELECTOR_ADJUSTMENT_DURATION_MILLIS);
-            invalidate();
+            mSettleStartTime = (getMetrics() != null) ? SystemClock.uptimeMillis() : 0;
+            if (mSettleEngine != null) {
+                mAdjustScroller.settle(0, deltaY, velocity, mSettleEngine);
+            } else {
+                mAdjustScroller.startScroll(0, deltaY, SELECTOR_ADJUSTMENT_DURATION_MILLIS);
+            }
+            scheduleScrollAnimation();
             return true;
         }
         return false;
     }
 
+    /**
+     * Keeps the accessibility state flags up to date.
+     */
+    class AccessibilityStateListener implements AccessibilityManager.AccessibilityStateChangeListener,
+            AccessibilityManagerCompat.TouchExplorationStateChangeListener {
+        @Override
+        public void onAccessibilityStateChanged(boolean enabled) {
+            mAccessibilityEnabled = enabled;
+        }
+
+        @Override
+        public void onTouchExplorationStateChanged(boolean enabled) {
+            mTouchExplorationEnabled = enabled;
+        }
+    }
+
     class PressedStateHelper implements Runnable {
         public static final int BUTTON_INCREMENT = 1;
         public static final int BUTTON_DECREMENT = 2;
@@ -2166,10 +3895,26 @@ public class NumberPicker extends LinearLayoutCompat {
     class BeginSoftInputOnLongPressCommand implements Runnable {
         @Override
         public void run() {
-            performLongClick();
+            if (mScrubEnabled) {
+                startScrub();
+            } else {
+                performLongClick();
+            }
         }
     }
 
+    /**
+     * Command for applying the mouse wheel and rotary input batched during a frame.
+     */
+    class ApplyGenericScrollCommand implements Runnable {
+        boolean mPosted;
+
+        @Override
+        public void run() {
+            mPosted = false;
+            applyGenericScroll();
+        }
+    }
 
     /**
      * Command for post validate input.
@@ -2183,7 +3928,42 @@ public class NumberPicker extends LinearLayoutCompat {
         }
     }
 
-    static private String formatNumberWithLocale(int value) {
-        return String.format(Locale.getDefault(), "%d", value);
+    /**
+     * Command for measuring the max width of the displayed values in background.
+     */
+    class MeasureDisplayedValuesCommand implements Runnable {
+        private final String[] mValues;
+        private final Paint mPaint;
+        private volatile boolean mCancelled;
+
+        MeasureDisplayedValuesCommand(String[] values) {
+            mValues = values;
+            // Paint is not thread safe, measure with a private copy
+            mPaint = new Paint(mSelectorWheelPaint);
+        }
+
+        void cancel() {
+            mCancelled = true;
+        }
+
+        @Override
+        public void run() {
+            if (mCancelled) {
+                return;
+            }
+            final int maxTextWidth = measureMaxTextWidth(mPaint, mValues, 1);
+            mMainThreadHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!mCancelled) {
+                        onDisplayedValuesMeasured(mValues, maxTextWidth);
+                    }
+                }
+            });
+        }
+    }
+
+    static private String formatNumberWithLocale(long value) {
+        return NumberFormats.formatWithLocale(value);
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Interface to receive the counters and timings of the hot paths of a
+ * {@link NumberPicker}, e.g. to feed them into telemetry.
+ * <p>
+ * All methods are called on the main thread, from within the measured code,
+ * so they should only record the values. When no metrics listener is set,
+ * the pickers do not measure anything.
+ * </p>
+ *
+ * @see NumberPicker#setMetrics(NumberPickerMetrics)
+ * @see NumberPicker#setGlobalMetrics(NumberPickerMetrics)
+ */
+public interface NumberPickerMetrics {
+    /**
+     * Called when the label of a value is found in the label cache.
+     *
+     * @param picker The NumberPicker.
+     */
+    void onLabelCacheHit(@NonNull NumberPicker picker);
+
+    /**
+     * Called when the label of a value is missing in the label cache and
+     * has been formatted.
+     *
+     * @param picker        The NumberPicker.
+     * @param durationNanos The time spent formatting the label.
+     */
+    void onLabelFormatted(@NonNull NumberPicker picker, long durationNanos);
+
+    /**
+     * Called after the picker has been drawn.
+     *
+     * @param picker        The NumberPicker.
+     * @param durationNanos The time spent in {@link NumberPicker#onDraw}.
+     */
+    void onDraw(@NonNull NumberPicker picker, long durationNanos);
+
+    /**
+     * Called after the picker has been measured.
+     *
+     * @param picker The NumberPicker.
+     * @param cached Whether the previous measurement has been reused.
+     */
+    void onMeasure(@NonNull NumberPicker picker, boolean cached);
+
+    /**
+     * Called when the picker has been invalidated.
+     *
+     * @param picker The NumberPicker.
+     */
+    void onInvalidate(@NonNull NumberPicker picker);
+
+    /**
+     * Called when a drag or fling gesture has ended, i.e. the scroll state
+     * went back to idle.
+     *
+     * @param picker       The NumberPicker.
+     * @param valueChanges The number of value changes during the gesture.
+     */
+    void onGestureFinished(@NonNull NumberPicker picker, int valueChanges);
+
+    /**
+     * Called when a fling has ended, either stopping or handing over to the
+     * settle animation.
+     *
+     * @param picker         The NumberPicker.
+     * @param durationMillis The duration of the fling.
+     */
+    void onFlingFinished(@NonNull NumberPicker picker, long durationMillis);
+
+    /**
+     * Called when the animation settling the wheel on the nearest item has
+     * ended.
+     *
+     * @param picker         The NumberPicker.
+     * @param durationMillis The duration of the settle animation.
+     */
+    void onSettleFinished(@NonNull NumberPicker picker, long durationMillis);
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import androidx.tracing.Trace;
+
+/**
+ * Optional trace sections around the hot paths of {@link NumberPicker}.
+ * <p>
+ * The library only compiles against androidx.tracing, so {@link Trace} is
+ * not touched unless sections are enabled, which requires the application
+ * to depend on androidx.tracing.
+ * </p>
+ */
+final class NumberPickerTrace {
+    private static boolean sEnabled;
+
+    private NumberPickerTrace() {
+    }
+
+    static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    static void setEnabled(boolean enabled) {
+        if (enabled) {
+            try {
+                // fails fast if androidx.tracing is missing at runtime
+                Trace.beginSection("NumberPicker");
+                Trace.endSection();
+            } catch (NoClassDefFoundError e) {
+                throw new IllegalStateException(
+                        "Trace sections require the androidx.tracing:tracing dependency", e);
+            }
+        }
+        sEnabled = enabled;
+    }
+
+    /**
+     * Begins a trace section if sections are enabled.
+     *
+     * @return Whether a section has begun, to be ended by {@link #endSection()}.
+     */
+    static boolean beginSection(String sectionName) {
+        if (!sEnabled) {
+            return false;
+        }
+        Trace.beginSection(sectionName);
+        return true;
+    }
+
+    static void endSection() {
+        Trace.endSection();
+    }
+}
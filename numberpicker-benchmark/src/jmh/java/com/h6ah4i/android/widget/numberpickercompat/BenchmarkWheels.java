@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * The wheel configurations the benchmarks run on.
+ */
+final class BenchmarkWheels {
+    /**
+     * The number of slots of the selector wheel, as in NumberPicker.
+     */
+    static final int SELECTOR_WHEEL_ITEM_COUNT = 5;
+    /**
+     * The index of the middle slot of the selector wheel.
+     */
+    static final int SELECTOR_MIDDLE_ITEM_INDEX = SELECTOR_WHEEL_ITEM_COUNT / 2;
+
+    private BenchmarkWheels() {
+    }
+
+    /**
+     * Creates a wrapping wheel for the given range name.
+     *
+     * @param range The number of values from 0, "stepped" for the multiples
+     *              of 15 up to a million, or "unbounded".
+     */
+    static WheelModel create(String range) {
+        final WheelModel wheel = new WheelModel();
+        if ("unbounded".equals(range)) {
+            wheel.setUnbounded(true);
+        } else if ("stepped".equals(range)) {
+            wheel.setValueSet(ValueSet.stepped(0, 1000000, 15));
+        } else {
+            wheel.setMinValue(0);
+            wheel.setMaxValue(Long.parseLong(range) - 1);
+        }
+        wheel.updateWrapping(SELECTOR_WHEEL_ITEM_COUNT);
+        return wheel;
+    }
+}
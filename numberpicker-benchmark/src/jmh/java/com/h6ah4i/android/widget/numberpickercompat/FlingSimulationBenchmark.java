@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fling through 10,000 items, updating the selector indices and their
+ * labels the way the picker does for each item scrolled past. The results
+ * are per item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlingSimulationBenchmark {
+    private static final int STEPS = 10000;
+
+    @Param({"60", "1000000", "stepped", "unbounded"})
+    public String range;
+
+    private final long[] mSelectorIndices = new long[BenchmarkWheels.SELECTOR_WHEEL_ITEM_COUNT];
+    private final LabelCache mLabelCache = new LabelCache(64);
+    private WheelModel mWheel;
+
+    @Setup
+    public void setUp() {
+        mWheel = BenchmarkWheels.create(range);
+        mWheel.fillSelectorIndices(mSelectorIndices, mWheel.getMinValue(),
+                BenchmarkWheels.SELECTOR_MIDDLE_ITEM_INDEX);
+    }
+
+    /**
+     * Shifts the indices by one item per step, as scrolling does.
+     */
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public long incrementSelectorIndices() {
+        final long[] selectorIndices = mSelectorIndices;
+        final int last = selectorIndices.length - 1;
+        for (int step = 0; step < STEPS; step++) {
+            mWheel.incrementSelectorIndices(selectorIndices);
+            ensureLabel(mWheel.toValue(selectorIndices[last]));
+        }
+        return mWheel.toValue(selectorIndices[BenchmarkWheels.SELECTOR_MIDDLE_ITEM_INDEX]);
+    }
+
+    /**
+     * Refills all the indices per step, as setting the value does.
+     */
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public long fillSelectorIndices() {
+        final long[] selectorIndices = mSelectorIndices;
+        long current = mWheel.toValue(selectorIndices[BenchmarkWheels.SELECTOR_MIDDLE_ITEM_INDEX]);
+        for (int step = 0; step < STEPS; step++) {
+            current = mWheel.getValueAfterSteps(current, 1);
+            mWheel.fillSelectorIndices(selectorIndices, current,
+                    BenchmarkWheels.SELECTOR_MIDDLE_ITEM_INDEX);
+            for (long position : selectorIndices) {
+                ensureLabel(mWheel.toValue(position));
+            }
+        }
+        return current;
+    }
+
+    private String ensureLabel(long value) {
+        String label = mLabelCache.get(value);
+        if (label == null) {
+            label = mWheel.isInRange(value) ? NumberFormats.formatWithLocale(value) : "";
+            mLabelCache.put(value, label);
+        }
+        return label;
+    }
+}
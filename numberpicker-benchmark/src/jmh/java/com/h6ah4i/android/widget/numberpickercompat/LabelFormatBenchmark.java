@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the label of a value, with the built-in formatters,
+ * typical custom formatters and the label cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LabelFormatBenchmark {
+    private final NumberFormats.TwoDigits mTwoDigits = new NumberFormats.TwoDigits();
+    private final LabelCache mLabelCache = new LabelCache(64);
+    private int mValue;
+
+    private int nextValue() {
+        // the minutes of a time picker
+        mValue = (mValue + 1) % 60;
+        return mValue;
+    }
+
+    @Benchmark
+    public String formatWithLocale() {
+        return NumberFormats.formatWithLocale(nextValue());
+    }
+
+    @Benchmark
+    public String twoDigits() {
+        return mTwoDigits.format(nextValue());
+    }
+
+    /**
+     * A custom formatter built on <code>String.format()</code>.
+     */
+    @Benchmark
+    public String customStringFormat() {
+        return String.format(Locale.US, "%d min", nextValue());
+    }
+
+    /**
+     * A custom formatter built on <code>Integer.toString()</code>.
+     */
+    @Benchmark
+    public String customToString() {
+        return Integer.toString(nextValue());
+    }
+
+    /**
+     * The label cache as used while the wheel scrolls through the values.
+     */
+    @Benchmark
+    public String labelCache() {
+        final long value = nextValue();
+        String label = mLabelCache.get(value);
+        if (label == null) {
+            label = NumberFormats.formatWithLocale(value);
+            mLabelCache.put(value, label);
+        }
+        return label;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the position wrap math of {@link WheelModel} across range sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WheelModelBenchmark {
+    @Param({"10", "1000", "1000000", "stepped", "unbounded"})
+    public String range;
+
+    private WheelModel mWheel;
+    private long mValue;
+    private long mPosition;
+
+    @Setup
+    public void setUp() {
+        mWheel = BenchmarkWheels.create(range);
+        mValue = mWheel.getMaxValue();
+        mPosition = mWheel.toPosition(mValue);
+    }
+
+    /**
+     * A step past the end, which wraps around on a bounded wheel.
+     */
+    @Benchmark
+    public long valueAfterStep() {
+        mValue = mWheel.getValueAfterSteps(mValue, 1);
+        return mValue;
+    }
+
+    /**
+     * A page of steps, e.g. for the page up and page down keys.
+     */
+    @Benchmark
+    public long valueAfterPage() {
+        mValue = mWheel.getValueAfterSteps(mValue, -7);
+        return mValue;
+    }
+
+    /**
+     * A step of the selector wheel, as for every item a fling passes.
+     */
+    @Benchmark
+    public long nextPosition() {
+        mPosition = mWheel.nextPosition(mPosition);
+        return mPosition;
+    }
+
+    @Benchmark
+    public boolean isSlotEmpty() {
+        return mWheel.isSlotEmpty(mWheel.toPosition(mValue), -BenchmarkWheels.SELECTOR_MIDDLE_ITEM_INDEX);
+    }
+}
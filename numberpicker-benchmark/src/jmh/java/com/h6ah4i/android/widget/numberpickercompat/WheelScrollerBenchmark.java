@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the fling physics of {@link WheelScroller}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WheelScrollerBenchmark {
+    private static final long FRAME_NANOS = 16666667L;
+
+    @Param({"2000", "8000", "24000"})
+    public int velocity;
+
+    private final ManualClock mClock = new ManualClock();
+    private WheelScroller mScroller;
+    private long mMidFlingTime;
+
+    @Setup
+    public void setUp() {
+        mScroller = new WheelScroller(2.625f, null, true, mClock);
+        mScroller.fling(0, velocity, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        mMidFlingTime = mClock.mNow + mScroller.getDuration() * 1000000L / 2;
+    }
+
+    /**
+     * A single frame of a running fling.
+     */
+    @Benchmark
+    public boolean computeScrollOffset() {
+        return mScroller.computeScrollOffset(mMidFlingTime);
+    }
+
+    /**
+     * Starting a fling, which computes its duration and distance.
+     */
+    @Benchmark
+    public int fling() {
+        final WheelScroller scroller = mScroller;
+        scroller.forceFinished(true);
+        scroller.fling(0, velocity, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return scroller.getFinalY();
+    }
+
+    /**
+     * A whole fling, frame by frame at 60 Hz.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long flingToEnd() {
+        final WheelScroller scroller = mScroller;
+        final ManualClock clock = mClock;
+        scroller.forceFinished(true);
+        scroller.fling(0, velocity, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        long sum = 0;
+        while (scroller.computeScrollOffset(clock.mNow += FRAME_NANOS)) {
+            sum += scroller.getCurrY();
+        }
+        return sum;
+    }
+
+    private static final class ManualClock implements WheelScroller.AnimationClock {
+        long mNow = 1000000000L;
+
+        @Override
+        public long currentAnimationTimeNanos() {
+            return mNow;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * Coalesces the accessibility events of value changes while the wheel scrolls.
+ * <p>
+ * While scrolling, at most one event is let through per interval. The last
+ * event held back is kept as pending, so that it can be sent once the wheel
+ * settles and describe the settled value.
+ * </p>
+ */
+final class AccessibilityEventThrottle {
+    static final int NO_PENDING_EVENT = -1;
+
+    private int mIntervalMillis;
+    private boolean mHasSentEvent;
+    private long mLastSentEventTime;
+    private int mPendingVirtualViewId;
+    private int mPendingEventType = NO_PENDING_EVENT;
+
+    /**
+     * @param intervalMillis The min interval between events while scrolling.
+     */
+    AccessibilityEventThrottle(int intervalMillis) {
+        setIntervalMillis(intervalMillis);
+    }
+
+    void setIntervalMillis(int intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("intervalMillis must not be negative");
+        }
+        mIntervalMillis = intervalMillis;
+    }
+
+    /**
+     * Decides whether the given event is sent now. If not, it replaces the
+     * pending event.
+     *
+     * @param scrolling Whether the wheel is scrolling.
+     * @param now       The current time in milliseconds.
+     * @return Whether the event is to be sent now.
+     */
+    boolean onEvent(int virtualViewId, int eventType, boolean scrolling, long now) {
+        if (scrolling && mHasSentEvent && now - mLastSentEventTime < mIntervalMillis) {
+            mPendingVirtualViewId = virtualViewId;
+            mPendingEventType = eventType;
+            return false;
+        }
+        mHasSentEvent = true;
+        mLastSentEventTime = now;
+        mPendingEventType = NO_PENDING_EVENT;
+        return true;
+    }
+
+    /**
+     * @return The virtual view id of the pending event.
+     */
+    int getPendingVirtualViewId() {
+        return mPendingVirtualViewId;
+    }
+
+    /**
+     * Takes the type of the pending event, to be sent once the wheel has
+     * settled.
+     *
+     * @return The event type, or {@link #NO_PENDING_EVENT}.
+     */
+    int takePendingEventType() {
+        final int eventType = mPendingEventType;
+        mPendingEventType = NO_PENDING_EVENT;
+        return eventType;
+    }
+}
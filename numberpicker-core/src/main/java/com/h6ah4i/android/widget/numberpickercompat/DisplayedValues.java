@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * Lookups in the values displayed instead of the numbers.
+ */
+final class DisplayedValues {
+    private DisplayedValues() {
+    }
+
+    /**
+     * @return The index of the first displayed value starting with the given
+     * prefix, ignoring case, or -1 if there is none.
+     */
+    static int indexOfPrefix(String[] displayedValues, String prefix) {
+        // Don't force the user to type in jan when ja will do
+        prefix = prefix.toLowerCase();
+        for (int i = 0; i < displayedValues.length; i++) {
+            if (displayedValues[i].toLowerCase().startsWith(prefix)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
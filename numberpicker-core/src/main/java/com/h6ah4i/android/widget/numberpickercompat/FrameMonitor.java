@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import java.util.Arrays;
+
+/**
+ * Records the frame intervals and draw times of a gesture into fixed
+ * histograms, without allocating per frame.
+ */
+final class FrameMonitor {
+    /**
+     * The width of a histogram bucket.
+     */
+    static final int BUCKET_NANOS = 250000;
+    /**
+     * The number of histogram buckets, covering 64 ms. Longer values fall
+     * into an extra overflow bucket.
+     */
+    static final int BUCKET_COUNT = 256;
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    private final int[] mIntervalHistogram = new int[BUCKET_COUNT + 1];
+    private final int[] mDrawHistogram = new int[BUCKET_COUNT + 1];
+    private boolean mRunning;
+    private long mFrameBudgetNanos;
+    private boolean mHasLastFrameTime;
+    private long mLastFrameTimeNanos;
+    private int mFrameCount;
+    private int mDrawCount;
+    private int mFramesOverBudget;
+    private long mMaxIntervalNanos;
+    private long mMaxDrawNanos;
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Starts recording a gesture.
+     *
+     * @param frameBudgetNanos The duration of a frame of the display.
+     */
+    void start(long frameBudgetNanos) {
+        Arrays.fill(mIntervalHistogram, 0);
+        Arrays.fill(mDrawHistogram, 0);
+        mRunning = true;
+        mFrameBudgetNanos = frameBudgetNanos;
+        mHasLastFrameTime = false;
+        mFrameCount = 0;
+        mDrawCount = 0;
+        mFramesOverBudget = 0;
+        mMaxIntervalNanos = 0;
+        mMaxDrawNanos = 0;
+    }
+
+    /**
+     * Records the start of a frame.
+     */
+    void onFrame(long frameTimeNanos) {
+        if (mHasLastFrameTime) {
+            final long interval = frameTimeNanos - mLastFrameTimeNanos;
+            mIntervalHistogram[bucketOf(interval)]++;
+            mMaxIntervalNanos = Math.max(mMaxIntervalNanos, interval);
+            mFrameCount++;
+            // missed at least one vsync
+            if (interval * 2 > mFrameBudgetNanos * 3) {
+                mFramesOverBudget++;
+            }
+        }
+        mHasLastFrameTime = true;
+        mLastFrameTimeNanos = frameTimeNanos;
+    }
+
+    /**
+     * Records the time spent drawing a frame.
+     */
+    void onDraw(long durationNanos) {
+        mDrawHistogram[bucketOf(durationNanos)]++;
+        mMaxDrawNanos = Math.max(mMaxDrawNanos, durationNanos);
+        mDrawCount++;
+    }
+
+    /**
+     * Stops recording.
+     *
+     * @return The summary of the gesture, or <code>null</code> if no frame
+     * interval has been recorded.
+     */
+    FrameStats finish() {
+        mRunning = false;
+        if (mFrameCount == 0) {
+            return null;
+        }
+        final long[] intervals = new long[PERCENTILES.length];
+        final long[] draws = new long[PERCENTILES.length];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            intervals[i] = percentile(mIntervalHistogram, mFrameCount, mMaxIntervalNanos, PERCENTILES[i]);
+            draws[i] = percentile(mDrawHistogram, mDrawCount, mMaxDrawNanos, PERCENTILES[i]);
+        }
+        return new FrameStats(mFrameBudgetNanos, mFrameCount, mFramesOverBudget, intervals, draws);
+    }
+
+    private static int bucketOf(long nanos) {
+        return (int) Math.min(Math.max(nanos, 0) / BUCKET_NANOS, BUCKET_COUNT);
+    }
+
+    /**
+     * @return The upper bound of the bucket holding the given percentile, or
+     * the max value if it is in the overflow bucket.
+     */
+    static long percentile(int[] histogram, int count, long max, double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(count * fraction);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += histogram[i];
+            if (cumulative >= rank) {
+                return Math.min((long) (i + 1) * BUCKET_NANOS, max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * Summary of the frames of a drag or fling gesture of a <code>NumberPicker</code>,
+ * received by <code>NumberPicker.OnFrameStatsListener</code>.
+ * <p>
+ * Percentiles come from a histogram with a resolution of
+ * {@value FrameMonitor#BUCKET_NANOS} ns, and are rounded up to it.
+ * </p>
+ */
+public final class FrameStats {
+    private final long mFrameBudgetNanos;
+    private final int mFrameCount;
+    private final int mFramesOverBudget;
+    private final long[] mIntervalPercentiles;
+    private final long[] mDrawPercentiles;
+
+    FrameStats(long frameBudgetNanos, int frameCount, int framesOverBudget,
+               long[] intervalPercentiles, long[] drawPercentiles) {
+        mFrameBudgetNanos = frameBudgetNanos;
+        mFrameCount = frameCount;
+        mFramesOverBudget = framesOverBudget;
+        mIntervalPercentiles = intervalPercentiles;
+        mDrawPercentiles = drawPercentiles;
+    }
+
+    /**
+     * @return The duration of a frame at the refresh rate of the display.
+     */
+    public long getFrameBudgetNanos() {
+        return mFrameBudgetNanos;
+    }
+
+    /**
+     * @return The number of frame intervals recorded.
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return The number of frame intervals longer than one and a half frame
+     * budget, i.e. which missed at least one frame of the display.
+     */
+    public int getFramesOverBudget() {
+        return mFramesOverBudget;
+    }
+
+    /**
+     * @return The median interval between frames.
+     */
+    public long getFrameIntervalP50Nanos() {
+        return mIntervalPercentiles[0];
+    }
+
+    /**
+     * @return The 90th percentile of the intervals between frames.
+     */
+    public long getFrameIntervalP90Nanos() {
+        return mIntervalPercentiles[1];
+    }
+
+    /**
+     * @return The 99th percentile of the intervals between frames.
+     */
+    public long getFrameIntervalP99Nanos() {
+        return mIntervalPercentiles[2];
+    }
+
+    /**
+     * @return The median time spent drawing the picker.
+     */
+    public long getDrawP50Nanos() {
+        return mDrawPercentiles[0];
+    }
+
+    /**
+     * @return The 90th percentile of the time spent drawing the picker.
+     */
+    public long getDrawP90Nanos() {
+        return mDrawPercentiles[1];
+    }
+
+    /**
+     * @return The 99th percentile of the time spent drawing the picker.
+     */
+    public long getDrawP99Nanos() {
+        return mDrawPercentiles[2];
+    }
+
+    @Override
+    public String toString() {
+        return "FrameStats{frames=" + mFrameCount
+                + ", overBudget=" + mFramesOverBudget
+                + ", budgetNanos=" + mFrameBudgetNanos
+                + ", intervalNanos=[p50=" + mIntervalPercentiles[0]
+                + ", p90=" + mIntervalPercentiles[1]
+                + ", p99=" + mIntervalPercentiles[2]
+                + "], drawNanos=[p50=" + mDrawPercentiles[0]
+                + ", p90=" + mDrawPercentiles[1]
+                + ", p99=" + mDrawPercentiles[2] + "]}";
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import java.util.Arrays;
+
+/**
+ * Fixed capacity cache of the string representation of selector values.
+ * <p>
+ * Values are mapped directly to slots by their low bits, so any run of
+ * consecutive values no longer than the capacity is cached without collision,
+ * and the memory footprint does not depend on the size of the value range.
+ * </p>
+ */
+final class LabelCache {
+    private final long[] mKeys;
+    private final String[] mLabels;
+    private final int mMask;
+    private int mGeneration;
+
+    /**
+     * @param capacity The number of slots. Must be a power of two.
+     */
+    LabelCache(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        mKeys = new long[capacity];
+        mLabels = new String[capacity];
+        mMask = capacity - 1;
+    }
+
+    /**
+     * @return The cached label of the given value, or <code>null</code> if not cached.
+     */
+    String get(long value) {
+        final int slot = (int) value & mMask;
+        final String label = mLabels[slot];
+        return (label != null && mKeys[slot] == value) ? label : null;
+    }
+
+    /**
+     * Caches the label of the given value, evicting the value sharing its slot.
+     */
+    void put(long value, String label) {
+        final int slot = (int) value & mMask;
+        mKeys[slot] = value;
+        mLabels[slot] = label;
+    }
+
+    /**
+     * Evicts all the cached labels.
+     */
+    void clear() {
+        Arrays.fill(mLabels, null);
+        mGeneration++;
+    }
+
+    /**
+     * @return The number of times the cache has been cleared, which changes
+     * whenever the labels of the values may have changed.
+     */
+    int getGeneration() {
+        return mGeneration;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Formatter;
+import java.util.Locale;
+
+/**
+ * Formatting of the numeric labels of the selector wheel.
+ */
+final class NumberFormats {
+    private NumberFormats() {
+    }
+
+    /**
+     * @return The given value formatted with the default locale.
+     */
+    static String formatWithLocale(long value) {
+        return String.format(Locale.getDefault(), "%d", value);
+    }
+
+    /**
+     * Two-digit formatting like "01". Keeping a formatter is the most
+     * efficient way to do this; it avoids creating temporary objects on
+     * every call to format().
+     */
+    static final class TwoDigits {
+        final StringBuilder mBuilder = new StringBuilder();
+        char mZeroDigit;
+        Formatter mFmt;
+        final Object[] mArgs = new Object[1];
+
+        TwoDigits() {
+            init(Locale.getDefault());
+        }
+
+        private void init(Locale locale) {
+            mFmt = new Formatter(mBuilder, locale);
+            mZeroDigit = getZeroDigit(locale);
+        }
+
+        String format(int value) {
+            final Locale currentLocale = Locale.getDefault();
+            if (mZeroDigit != getZeroDigit(currentLocale)) {
+                init(currentLocale);
+            }
+            mArgs[0] = value;
+            mBuilder.delete(0, mBuilder.length());
+            mFmt.format("%02d", mArgs);
+            return mFmt.toString();
+        }
+
+        private static char getZeroDigit(Locale locale) {
+            return DecimalFormatSymbols.getInstance(locale).getZeroDigit();
+        }
+    }
+}
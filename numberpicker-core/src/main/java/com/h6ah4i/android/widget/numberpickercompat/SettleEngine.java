@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * Computes the motion used to settle the selector wheel on the nearest item.
+ * <p>
+ * The motion starts at position 0 with the given initial velocity and comes
+ * to rest at the given distance. Implementations must be stateless, since a
+ * single instance may be shared by any number of pickers. It is set with
+ * <code>NumberPicker.setSettleEngine()</code>.
+ * </p>
+ *
+ * @see SpringSettleEngine
+ */
+public interface SettleEngine {
+    /**
+     * Returns the time it takes to come to rest.
+     *
+     * @param distance The distance to travel in pixels. May be negative.
+     * @param velocity The initial velocity in pixels per second. May be negative.
+     * @return The duration in milliseconds.
+     */
+    int getDuration(float distance, float velocity);
+
+    /**
+     * Returns the position at the given time.
+     *
+     * @param distance   The distance to travel in pixels.
+     * @param velocity   The initial velocity in pixels per second.
+     * @param timeMillis The time elapsed since the start, less than the duration.
+     * @return The position in pixels relative to the start.
+     */
+    float getPosition(float distance, float velocity, float timeMillis);
+
+    /**
+     * Returns the velocity at the given time.
+     *
+     * @param distance   The distance to travel in pixels.
+     * @param velocity   The initial velocity in pixels per second.
+     * @param timeMillis The time elapsed since the start, less than the duration.
+     * @return The velocity in pixels per second.
+     */
+    float getVelocity(float distance, float velocity, float timeMillis);
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * {@link SettleEngine} moving the wheel as a critically damped spring.
+ * <p>
+ * The settle time grows with the remaining offset and the initial velocity,
+ * and the velocity handed over from a fling or a drag carries on smoothly.
+ * With the default stiffness the wheel comes to rest in about 150-250 ms for
+ * typical offsets of 10-100 pixels.
+ * </p>
+ */
+public class SpringSettleEngine implements SettleEngine {
+    /**
+     * The default stiffness of the spring, for a unit mass.
+     */
+    public static final float DEFAULT_STIFFNESS = 900.0f;
+    /**
+     * The distance from the rest position, in pixels, at which the spring
+     * is considered at rest.
+     */
+    private static final float REST_THRESHOLD = 0.5f;
+    /**
+     * The number of iterations for solving the settle time.
+     */
+    private static final int DURATION_SOLVER_ITERATIONS = 8;
+
+    /**
+     * The natural angular frequency (rad/ms).
+     */
+    private final float mOmega;
+
+    /**
+     * Create a spring settle engine with the default stiffness.
+     */
+    public SpringSettleEngine() {
+        this(DEFAULT_STIFFNESS);
+    }
+
+    /**
+     * Create a spring settle engine.
+     *
+     * @param stiffness The stiffness of the spring, for a unit mass. Higher
+     *                  values settle faster.
+     */
+    public SpringSettleEngine(float stiffness) {
+        if (!(stiffness > 0)) {
+            throw new IllegalArgumentException("stiffness must be positive");
+        }
+        mOmega = (float) Math.sqrt(stiffness) / 1000.0f;
+    }
+
+    @Override
+    public int getDuration(float distance, float velocity) {
+        // The displacement from the rest position is (x0 + b * t) * exp(-w * t),
+        // and it is bounded by (|x0| + |b| * t) * exp(-w * t). Find when the
+        // bound falls below the rest threshold by fixed point iteration.
+        final float w = mOmega;
+        final float x0 = Math.abs(distance);
+        final float b = Math.abs(velocity / 1000.0f - w * distance);
+        // start from the peak of the b * t * exp(-w * t) term
+        double t = 1.0 / w;
+        for (int i = 0; i < DURATION_SOLVER_ITERATIONS; i++) {
+            t = Math.max(0, Math.log((x0 + b * t) / REST_THRESHOLD) / w);
+        }
+        return (int) Math.ceil(t);
+    }
+
+    @Override
+    public float getPosition(float distance, float velocity, float timeMillis) {
+        final float w = mOmega;
+        final float x0 = -distance;
+        final float b = velocity / 1000.0f + w * x0;
+        return distance + (x0 + b * timeMillis) * (float) Math.exp(-w * timeMillis);
+    }
+
+    @Override
+    public float getVelocity(float distance, float velocity, float timeMillis) {
+        final float w = mOmega;
+        final float v0 = velocity / 1000.0f;
+        final float b = v0 - w * distance;
+        return (v0 - w * b * timeMillis) * (float) Math.exp(-w * timeMillis) * 1000.0f;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * An ordered set of the values selectable by a <code>NumberPicker</code>,
+ * set with <code>NumberPicker.setValueSet()</code>.
+ * <p>
+ * Mapping between values and their indices takes constant time for
+ * contiguous and stepped sets, and a binary search for sorted arrays.
+ * </p>
+ */
+public abstract class ValueSet {
+    ValueSet() {
+    }
+
+    /**
+     * Creates a set of the contiguous values from <code>min</code> to <code>max</code>.
+     *
+     * @param min The min value inclusive.
+     * @param max The max value inclusive.
+     * @return The value set.
+     */
+    @NonNull
+    public static ValueSet range(int min, int max) {
+        return stepped(min, max, 1);
+    }
+
+    /**
+     * Creates a set of the values from <code>min</code> to <code>max</code>
+     * spaced by <code>step</code>, e.g. 0, 15, 30, 45.
+     *
+     * @param min  The min value inclusive.
+     * @param max  The upper bound inclusive. It is not part of the set unless
+     *             it is reachable from <code>min</code> by whole steps.
+     * @param step The positive difference between consecutive values.
+     * @return The value set.
+     */
+    @NonNull
+    public static ValueSet stepped(int min, int max, int step) {
+        if (min > max) {
+            throw new IllegalArgumentException("min > max");
+        }
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive");
+        }
+        return new SteppedValueSet(min, max, step);
+    }
+
+    /**
+     * Creates a set of the given values.
+     *
+     * @param values The values in strictly ascending order. The array is copied.
+     * @return The value set.
+     */
+    @NonNull
+    public static ValueSet of(@NonNull int... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("values must not be empty");
+        }
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] >= values[i]) {
+                throw new IllegalArgumentException("values must be in strictly ascending order");
+            }
+        }
+        return new SortedValueSet(values.clone());
+    }
+
+    /**
+     * @return The number of values.
+     */
+    public abstract long size();
+
+    /**
+     * @param index The index of the value, from 0 to {@link #size()} - 1.
+     * @return The value at the given index.
+     */
+    public abstract int valueAt(long index);
+
+    /**
+     * @param value The value to look for.
+     * @return The index of the given value if it is in the set, otherwise
+     * <code>(-(insertion point) - 1)</code> as {@link Arrays#binarySearch(int[], int)}.
+     */
+    public abstract long indexOf(int value);
+
+    /**
+     * @return The index of the value nearest to the given one, choosing the
+     * smaller value on a tie.
+     */
+    final long nearestIndexOf(long value) {
+        final long last = size() - 1;
+        if (value <= valueAt(0)) {
+            return 0;
+        }
+        if (value >= valueAt(last)) {
+            return last;
+        }
+        final long index = indexOf((int) value);
+        if (index >= 0) {
+            return index;
+        }
+        final long insertionPoint = -index - 1;
+        final long below = valueAt(insertionPoint - 1);
+        final long above = valueAt(insertionPoint);
+        return (value - below <= above - value) ? insertionPoint - 1 : insertionPoint;
+    }
+
+    private static final class SteppedValueSet extends ValueSet {
+        private final int mMin;
+        private final int mStep;
+        private final long mSize;
+
+        SteppedValueSet(int min, int max, int step) {
+            mMin = min;
+            mStep = step;
+            mSize = ((long) max - min) / step + 1;
+        }
+
+        @Override
+        public long size() {
+            return mSize;
+        }
+
+        @Override
+        public int valueAt(long index) {
+            if (index < 0 || index >= mSize) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+            }
+            return (int) (mMin + index * mStep);
+        }
+
+        @Override
+        public long indexOf(int value) {
+            final long offset = (long) value - mMin;
+            if (offset < 0) {
+                return -1;
+            }
+            final long quotient = offset / mStep;
+            if (quotient >= mSize) {
+                return -mSize - 1;
+            }
+            return (offset % mStep == 0) ? quotient : -(quotient + 1) - 1;
+        }
+    }
+
+    private static final class SortedValueSet extends ValueSet {
+        private final int[] mValues;
+
+        SortedValueSet(int[] values) {
+            mValues = values;
+        }
+
+        @Override
+        public long size() {
+            return mValues.length;
+        }
+
+        @Override
+        public int valueAt(long index) {
+            if (index < 0 || index >= mValues.length) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + mValues.length);
+            }
+            return mValues[(int) index];
+        }
+
+        @Override
+        public long indexOf(int value) {
+            return Arrays.binarySearch(mValues, value);
+        }
+    }
+}
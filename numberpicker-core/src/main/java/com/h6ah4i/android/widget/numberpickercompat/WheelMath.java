@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * Overflow-safe arithmetic on the values of the selector wheel.
+ * <p>
+ * All methods take an inclusive range <code>[min, max]</code> with
+ * <code>min &lt;= max</code>, which may span the whole range of
+ * <code>long</code>. Distances within the range are handled as unsigned
+ * 64-bit integers, so no intermediate result can overflow.
+ * </p>
+ */
+final class WheelMath {
+    private WheelMath() {
+    }
+
+    /**
+     * @return The value next to the given in-range value. If the value is the
+     * max and the wheel wraps, the min is returned. If the value is the max
+     * and the wheel does not wrap, the max is returned.
+     */
+    static long next(long value, long min, long max, boolean wrap) {
+        if (value == max) {
+            return wrap ? min : max;
+        }
+        return value + 1;
+    }
+
+    /**
+     * @return The value previous to the given in-range value. If the value is
+     * the min and the wheel wraps, the max is returned. If the value is the
+     * min and the wheel does not wrap, the min is returned.
+     */
+    static long previous(long value, long min, long max, boolean wrap) {
+        if (value == min) {
+            return wrap ? max : min;
+        }
+        return value - 1;
+    }
+
+    /**
+     * @return The given value wrapped around into the range.
+     */
+    static long wrap(long value, long min, long max) {
+        if (value >= min && value <= max) {
+            return value;
+        }
+        final long span = max - min; // unsigned, count - 1
+        if (span == -1L) {
+            // the range covers all the long values
+            return value;
+        }
+        final long count = span + 1;
+        if (value > max) {
+            return min + remainderUnsigned(value - min, count);
+        } else {
+            final long r = remainderUnsigned(min - value, count);
+            return (r == 0) ? min : max - r + 1;
+        }
+    }
+
+    /**
+     * @return The given value clamped into the range.
+     */
+    static long clamp(long value, long min, long max) {
+        return (value < min) ? min : (value > max) ? max : value;
+    }
+
+    /**
+     * @return The value reached by moving the given number of steps from the
+     * given in-range value, either wrapping around or stopping at the ends of
+     * the range.
+     */
+    static long add(long value, long steps, long min, long max, boolean wrap) {
+        if (steps == 0) {
+            return value;
+        }
+        // single steps, e.g. of the arrow keys, take the branch-only path
+        if (steps == 1) {
+            return next(value, min, max, wrap);
+        }
+        if (steps == -1) {
+            return previous(value, min, max, wrap);
+        }
+        if (!wrap) {
+            if (steps > 0) {
+                return compareUnsigned(max - value, steps) <= 0 ? max : value + steps;
+            } else {
+                return compareUnsigned(value - min, -steps) <= 0 ? min : value + steps;
+            }
+        }
+        final long span = max - min; // unsigned, count - 1
+        if (span == -1L) {
+            // the range covers all the long values
+            return value + steps;
+        }
+        final long count = span + 1;
+        // the number of steps forward, in [0, count)
+        long forward;
+        if (steps > 0) {
+            forward = remainderUnsigned(steps, count);
+        } else {
+            final long r = remainderUnsigned(-steps, count);
+            forward = (r == 0) ? 0 : count - r;
+        }
+        final long toMax = max - value; // unsigned
+        if (compareUnsigned(forward, toMax) <= 0) {
+            return value + forward;
+        } else {
+            return min + (forward - toMax - 1);
+        }
+    }
+
+    /**
+     * @return The signed number of steps of the shortest way from the given
+     * in-range value to the given in-range target, going around the ends of
+     * the range if the wheel wraps. The result saturates to the long range.
+     */
+    static long distance(long from, long to, long min, long max, boolean wrap) {
+        final long forward = to - from; // unsigned if to >= from
+        if (!wrap) {
+            if (to >= from) {
+                return (forward < 0) ? Long.MAX_VALUE : forward;
+            } else {
+                return (forward > 0) ? Long.MIN_VALUE : forward;
+            }
+        }
+        // unsigned number of steps to go forward and backward around the wheel
+        final long count = max - min + 1; // unsigned, 0 means 2^64
+        final long ahead = (to >= from) ? forward : count + forward;
+        final long behind = (to <= from) ? from - to : count - forward;
+        if (compareUnsigned(ahead, behind) <= 0) {
+            return (ahead < 0) ? Long.MAX_VALUE : ahead;
+        } else {
+            return (behind < 0) ? Long.MIN_VALUE : -behind;
+        }
+    }
+
+    /**
+     * @return Whether the number of values in the range exceeds the given count.
+     */
+    static boolean isCountGreaterThan(long min, long max, int count) {
+        if (count <= 0) {
+            return true;
+        }
+        // max - min is the unsigned value count - 1
+        return compareUnsigned(max - min, count - 1) > 0;
+    }
+
+    /**
+     * @return The given value clamped into the int range.
+     */
+    static int saturatedCast(long value) {
+        return (int) clamp(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compares two longs as unsigned values.
+     */
+    static int compareUnsigned(long a, long b) {
+        a += Long.MIN_VALUE;
+        b += Long.MIN_VALUE;
+        return (a < b) ? -1 : ((a == b) ? 0 : 1);
+    }
+
+    /**
+     * Computes the unsigned remainder of the unsigned division.
+     */
+    static long remainderUnsigned(long dividend, long divisor) {
+        if (divisor < 0) {
+            // the divisor is 2^63 or greater
+            return (compareUnsigned(dividend, divisor) < 0) ? dividend : dividend - divisor;
+        }
+        if (dividend >= 0) {
+            return dividend % divisor;
+        }
+        final long quotient = ((dividend >>> 1) / divisor) << 1;
+        final long rem = dividend - quotient * divisor;
+        return rem - (compareUnsigned(rem, divisor) >= 0 ? divisor : 0);
+    }
+}
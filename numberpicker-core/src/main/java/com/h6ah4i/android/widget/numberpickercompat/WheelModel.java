@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * The values of the selector wheel: the range or value set, whether the
+ * wheel is unbounded and whether it wraps, and the moves between values.
+ * <p>
+ * Values are laid out on the wheel at positions. Without a value set the
+ * position of a value is the value itself, otherwise it is the index of the
+ * value in the set. In the unbounded mode the positions span all the
+ * <code>long</code> values.
+ * </p>
+ */
+final class WheelModel {
+    private long mMinValue;
+    private long mMaxValue;
+    private ValueSet mValueSet;
+    private boolean mUnbounded;
+    private boolean mWrapPreferred = true;
+    private boolean mWrapping;
+
+    long getMinValue() {
+        return mMinValue;
+    }
+
+    /**
+     * Sets the min value, discarding the value set.
+     */
+    void setMinValue(long minValue) {
+        mValueSet = null;
+        mMinValue = minValue;
+    }
+
+    long getMaxValue() {
+        return mMaxValue;
+    }
+
+    /**
+     * Sets the max value, discarding the value set.
+     */
+    void setMaxValue(long maxValue) {
+        mValueSet = null;
+        mMaxValue = maxValue;
+    }
+
+    ValueSet getValueSet() {
+        return mValueSet;
+    }
+
+    /**
+     * Sets the value set, whose ends become the min and max values.
+     */
+    void setValueSet(ValueSet valueSet) {
+        mValueSet = valueSet;
+        if (valueSet != null) {
+            mMinValue = valueSet.valueAt(0);
+            mMaxValue = valueSet.valueAt(valueSet.size() - 1);
+        }
+    }
+
+    boolean isUnbounded() {
+        return mUnbounded;
+    }
+
+    void setUnbounded(boolean unbounded) {
+        mUnbounded = unbounded;
+    }
+
+    boolean isWrapPreferred() {
+        return mWrapPreferred;
+    }
+
+    void setWrapPreferred(boolean wrapPreferred) {
+        mWrapPreferred = wrapPreferred;
+    }
+
+    /**
+     * @return Whether the wheel wraps around, as last computed by
+     * {@link #updateWrapping(int)}.
+     */
+    boolean isWrapping() {
+        return mWrapping;
+    }
+
+    /**
+     * Decides whether the wheel wraps around. It does if it is preferred and
+     * there are more values than the given number of slots of the wheel.
+     */
+    void updateWrapping(int slotCount) {
+        final boolean wrappingAllowed = !mUnbounded && WheelMath.isCountGreaterThan(
+                getFirstPosition(), getLastPosition(), slotCount);
+        mWrapping = wrappingAllowed && mWrapPreferred;
+    }
+
+    /**
+     * @return The value reached by moving the given number of items from
+     * the given value, honoring the wrap rules.
+     */
+    long getValueAfterSteps(long value, long steps) {
+        final long first = getFirstPosition();
+        final long last = getLastPosition();
+        final long start = mWrapping
+                ? WheelMath.wrap(toPosition(value), first, last)
+                : WheelMath.clamp(toPosition(value), first, last);
+        return toValue(WheelMath.add(start, steps, first, last, mWrapping));
+    }
+
+    /**
+     * @return The signed number of steps of the shortest way from the given
+     * value to the given target, saturated to the long range. Note that
+     * {@link Math#abs(long)} of a saturated backward distance is negative.
+     */
+    long distance(long fromValue, long toValue) {
+        return WheelMath.distance(toPosition(fromValue), toPosition(toValue),
+                getFirstPosition(), getLastPosition(), mWrapping);
+    }
+
+    /**
+     * @return The given signed number of steps from the given value, limited
+     * to the ends of a non-wrapping range, or to one step less than a lap
+     * around a wrapping wheel.
+     */
+    long limitSteps(long value, long steps) {
+        if (!mWrapping) {
+            return distance(value, getValueAfterSteps(value, steps));
+        }
+        final long maxSteps = getLastPosition() - getFirstPosition(); // unsigned
+        if (steps >= 0) {
+            return (WheelMath.compareUnsigned(steps, maxSteps) > 0) ? maxSteps : steps;
+        } else {
+            return (WheelMath.compareUnsigned(-steps, maxSteps) > 0) ? -maxSteps : steps;
+        }
+    }
+
+    /**
+     * @return The value nearest to the given one, without wrapping.
+     */
+    long getNearestValue(long value) {
+        if (mUnbounded) {
+            return value;
+        }
+        return toValue(WheelMath.clamp(toPosition(value), getFirstPosition(), getLastPosition()));
+    }
+
+    /**
+     * @return The position of the given value on the wheel, the index of the
+     * nearest value with a value set.
+     */
+    long toPosition(long value) {
+        return (mUnbounded || mValueSet == null) ? value : mValueSet.nearestIndexOf(value);
+    }
+
+    /**
+     * @return The value at the given position on the wheel.
+     */
+    long toValue(long position) {
+        return (mUnbounded || mValueSet == null) ? position : mValueSet.valueAt(position);
+    }
+
+    /**
+     * @return The position of the min value on the wheel.
+     */
+    long getFirstPosition() {
+        if (mUnbounded) {
+            return Long.MIN_VALUE;
+        }
+        return (mValueSet == null) ? mMinValue : 0;
+    }
+
+    /**
+     * @return The position of the max value on the wheel.
+     */
+    long getLastPosition() {
+        if (mUnbounded) {
+            return Long.MAX_VALUE;
+        }
+        return (mValueSet == null) ? mMaxValue : mValueSet.size() - 1;
+    }
+
+    /**
+     * @return Whether the given value can be incremented.
+     */
+    boolean hasNextValue(long value) {
+        return mWrapping || toPosition(value) < getLastPosition();
+    }
+
+    /**
+     * @return Whether the given value can be decremented.
+     */
+    boolean hasPreviousValue(long value) {
+        return mWrapping || toPosition(value) > getFirstPosition();
+    }
+
+    /**
+     * @return The index of the given value from the min value, e.g. in the
+     * displayed values.
+     */
+    int getIndexOf(long value) {
+        return (int) (toPosition(value) - getFirstPosition());
+    }
+
+    /**
+     * @return Whether the given value has a label on the wheel.
+     */
+    boolean isInRange(long value) {
+        return mUnbounded || (value >= mMinValue && value <= mMaxValue);
+    }
+
+    /**
+     * @return The position next to the given one, honoring the wrap rules.
+     */
+    long nextPosition(long position) {
+        return WheelMath.next(position, getFirstPosition(), getLastPosition(), mWrapping);
+    }
+
+    /**
+     * @return The position previous to the given one, honoring the wrap rules.
+     */
+    long previousPosition(long position) {
+        return WheelMath.previous(position, getFirstPosition(), getLastPosition(), mWrapping);
+    }
+
+    /**
+     * Fills the slots of the wheel with the positions around the one of the
+     * given value. The slots past the ends of a non-wrapping range repeat the
+     * end position, see {@link #isSlotEmpty(long, int)}.
+     */
+    void fillSelectorIndices(long[] selectorIndices, long current, int middleIndex) {
+        final long position = toPosition(current);
+        selectorIndices[middleIndex] = mWrapping
+                ? WheelMath.wrap(position, getFirstPosition(), getLastPosition())
+                : WheelMath.clamp(position, getFirstPosition(), getLastPosition());
+        for (int i = middleIndex + 1; i < selectorIndices.length; i++) {
+            selectorIndices[i] = nextPosition(selectorIndices[i - 1]);
+        }
+        for (int i = middleIndex - 1; i >= 0; i--) {
+            selectorIndices[i] = previousPosition(selectorIndices[i + 1]);
+        }
+    }
+
+    /**
+     * Moves the slots of the wheel by one position forward. It takes constant
+     * time, so that it can run for every item a fling passes.
+     */
+    void incrementSelectorIndices(long[] selectorIndices) {
+        final int last = selectorIndices.length - 1;
+        System.arraycopy(selectorIndices, 1, selectorIndices, 0, last);
+        selectorIndices[last] = nextPosition(selectorIndices[last - 1]);
+    }
+
+    /**
+     * Moves the slots of the wheel by one position backward.
+     *
+     * @see #incrementSelectorIndices(long[])
+     */
+    void decrementSelectorIndices(long[] selectorIndices) {
+        System.arraycopy(selectorIndices, 0, selectorIndices, 1, selectorIndices.length - 1);
+        selectorIndices[0] = previousPosition(selectorIndices[1]);
+    }
+
+    /**
+     * @return Whether the slot at the given offset from the middle one, which
+     * is at the given position, is past the ends of a non-wrapping range.
+     */
+    boolean isSlotEmpty(long middlePosition, int offset) {
+        if (mWrapping) {
+            return false;
+        }
+        if (offset < 0) {
+            return WheelMath.compareUnsigned(middlePosition - getFirstPosition(), -offset) < 0;
+        } else if (offset > 0) {
+            return WheelMath.compareUnsigned(getLastPosition() - middlePosition, offset) < 0;
+        }
+        return false;
+    }
+
+    /**
+     * Decides whether the given text, typed in for a number, may become a
+     * value. Values below the min are accepted since the user may still be
+     * typing; values past the max or longer than it are not.
+     *
+     * @param text The non-empty text after the edit.
+     */
+    boolean acceptsTypedNumber(String text) {
+        // parse as long so that input past the int range is not mistaken
+        // for an acceptable value
+        long val;
+        try {
+            val = Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            if (mUnbounded && !"-".equals(text)) {
+                // past the long range
+                return false;
+            }
+            val = mMinValue;
+        }
+        if (mUnbounded) {
+            return true;
+        }
+        /*
+         * Ensure the user can't type in a value greater than the max
+         * allowed. We have to allow less than min as the user might
+         * want to delete some numbers and then type a new number.
+         * And prevent multiple-"0" that exceeds the length of upper
+         * bound number.
+         */
+        return val <= mMaxValue && text.length() <= String.valueOf(mMaxValue).length();
+    }
+}
@@ -0,0 +1,539 @@
+/*
+ * Copyright (C) 2017 Haruki Hasegawa
+ * Copyright (C) 2006 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governings permissions and
+ * limitations under the License.
+ */
+package com.h6ah4i.android.widget.numberpickercompat;
+
+/**
+ * Vertical-only scroller for the selector wheel.
+ * <p>
+ * This is a one-dimensional specialization of <code>android.widget.Scroller</code>
+ * with the same spline fling physics and without Android dependencies. The
+ * position is computed in float, the current velocity is a plain field read,
+ * and the position at any animation time can be queried without advancing the
+ * scroller, e.g. to predict where a fling will be in the future.
+ * </p>
+ */
+class WheelScroller {
+    private static final int DEFAULT_DURATION = 250;
+    private static final int SCROLL_MODE = 0;
+    private static final int FLING_MODE = 1;
+    private static final int SETTLE_MODE = 2;
+    private static final long NANOS_PER_MS = 1000000L;
+    /**
+     * Same as <code>ViewConfiguration.getScrollFriction()</code>.
+     */
+    private static final float DEFAULT_SCROLL_FRICTION = 0.015f;
+    /**
+     * Same as <code>SensorManager.GRAVITY_EARTH</code>.
+     */
+    private static final float GRAVITY_EARTH = 9.80665f;
+    private static final float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+    private static final float INFLEXION = 0.35f; // Tension lines cross at (INFLEXION, 1)
+    private static final float START_TENSION = 0.5f;
+    private static final float END_TENSION = 1.0f;
+    private static final float P1 = START_TENSION * INFLEXION;
+    private static final float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
+    private static final int NB_SAMPLES = 100;
+    private static final float[] SPLINE_POSITION = new float[NB_SAMPLES + 1];
+
+    static {
+        float x_min = 0.0f;
+        for (int i = 0; i < NB_SAMPLES; i++) {
+            final float alpha = (float) i / NB_SAMPLES;
+            float x_max = 1.0f;
+            float x, tx, coef;
+            while (true) {
+                x = x_min + (x_max - x_min) / 2.0f;
+                coef = 3.0f * x * (1.0f - x);
+                tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
+                if (Math.abs(tx - alpha) < 1E-5) break;
+                if (tx > alpha) x_max = x;
+                else x_min = x;
+            }
+            SPLINE_POSITION[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
+        }
+        SPLINE_POSITION[NB_SAMPLES] = 1.0f;
+    }
+
+    /**
+     * Interpolator of the scroll animations, same as
+     * <code>android.view.animation.Interpolator</code>.
+     */
+    interface Interpolator {
+        float getInterpolation(float input);
+    }
+
+    /**
+     * Source of the time at which animations start.
+     */
+    interface AnimationClock {
+        /**
+         * @return The current animation time in nanoseconds, in the same
+         * time base as the times given to {@link #computeScrollOffset(long)}.
+         */
+        long currentAnimationTimeNanos();
+    }
+
+    /**
+     * The clock based on {@link System#nanoTime()}.
+     */
+    static final AnimationClock SYSTEM_CLOCK = new AnimationClock() {
+        @Override
+        public long currentAnimationTimeNanos() {
+            return System.nanoTime();
+        }
+    };
+
+    private final Interpolator mInterpolator;
+    private final AnimationClock mClock;
+    private final boolean mFlywheel;
+    private int mMode;
+    private boolean mFinished;
+    private float mStart;
+    private float mFinal;
+    // The distance of a fling before it is pinned to mMin and mMax.
+    private float mSplineDistance;
+    private float mCurr;
+    private float mMin;
+    private float mMax;
+    private float mCurrVelocity;
+    private float mStartVelocity;
+    private SettleEngine mSettleEngine;
+    private long mStartTimeNanos;
+    private int mDuration;
+    private float mDurationReciprocal;
+    private float mFlingFriction = DEFAULT_SCROLL_FRICTION;
+    private final float mPpi;
+    // A context-specific coefficient adjusted to physical values.
+    private final float mPhysicalCoeff;
+
+    /**
+     * Create a WheelScroller with the specified interpolator, animating in
+     * the {@link System#nanoTime()} time base.
+     *
+     * @see #WheelScroller(float, Interpolator, boolean, AnimationClock)
+     */
+    public WheelScroller(float density, Interpolator interpolator, boolean flywheel) {
+        this(density, interpolator, flywheel, SYSTEM_CLOCK);
+    }
+
+    /**
+     * Create a WheelScroller with the specified interpolator. If the interpolator is
+     * null, the default (viscous) interpolator will be used. Specify whether or
+     * not to support progressive "flywheel" behavior in flinging.
+     *
+     * @param density The logical density of the display.
+     * @param clock   The source of the start time of the animations.
+     */
+    public WheelScroller(float density, Interpolator interpolator, boolean flywheel,
+                         AnimationClock clock) {
+        mFinished = true;
+        if (interpolator == null) {
+            mInterpolator = new ViscousFluidInterpolator();
+        } else {
+            mInterpolator = interpolator;
+        }
+        mClock = clock;
+        mPpi = density * 160.0f;
+        mFlywheel = flywheel;
+        mPhysicalCoeff = computeDeceleration(0.84f); // look and feel tuning
+    }
+
+    /**
+     * The amount of friction applied to flings. The default value
+     * is the one of <code>ViewConfiguration.getScrollFriction()</code>.
+     *
+     * @param friction A scalar dimension-less value representing the coefficient of
+     *                 friction.
+     */
+    public final void setFriction(float friction) {
+        mFlingFriction = friction;
+    }
+
+    private float computeDeceleration(float friction) {
+        return GRAVITY_EARTH           // g (m/s^2)
+                * 39.37f               // inch/meter
+                * mPpi                 // pixels per inch
+                * friction;
+    }
+
+    /**
+     * Returns whether the scroller has finished scrolling.
+     *
+     * @return True if the scroller has finished scrolling, false otherwise.
+     */
+    public final boolean isFinished() {
+        return mFinished;
+    }
+
+    /**
+     * Force the finished field to a particular value.
+     *
+     * @param finished The new finished value.
+     */
+    public final void forceFinished(boolean finished) {
+        mFinished = finished;
+    }
+
+    /**
+     * Returns how long the scroll event will take, in milliseconds.
+     *
+     * @return The duration of the scroll in milliseconds.
+     */
+    public final int getDuration() {
+        return mDuration;
+    }
+
+    /**
+     * Returns the current Y offset in the scroll.
+     *
+     * @return The current Y offset rounded to the nearest pixel.
+     */
+    public final int getCurrY() {
+        return Math.round(mCurr);
+    }
+
+    /**
+     * Returns the current Y offset in the scroll.
+     *
+     * @return The current Y offset in sub-pixel precision.
+     */
+    public final float getCurrPosition() {
+        return mCurr;
+    }
+
+    /**
+     * Returns the velocity at the time of the last {@link #computeScrollOffset()}.
+     *
+     * @return The velocity in pixels per second. Result may be negative.
+     */
+    public final float getCurrVelocity() {
+        return mCurrVelocity;
+    }
+
+    /**
+     * Returns the start Y offset in the scroll.
+     *
+     * @return The start Y offset as an absolute distance from the origin.
+     */
+    public final int getStartY() {
+        return Math.round(mStart);
+    }
+
+    /**
+     * Returns where the scroll will end.
+     *
+     * @return The final Y offset as an absolute distance from the origin.
+     */
+    public final int getFinalY() {
+        return Math.round(mFinal);
+    }
+
+    /**
+     * Call this when you want to know the new location.  If it returns true,
+     * the animation is not yet finished.
+     */
+    public boolean computeScrollOffset() {
+        return computeScrollOffset(currentAnimationTimeNanos());
+    }
+
+    /**
+     * Computes the location at the given animation time, e.g. the frame time
+     * reported by <code>Choreographer</code>. If it returns true, the
+     * animation is not yet finished.
+     *
+     * @param animationTimeNanos The animation time in nanoseconds, in the
+     *                           {@link System#nanoTime()} time base.
+     */
+    public boolean computeScrollOffset(long animationTimeNanos) {
+        if (mFinished) {
+            return false;
+        }
+        final float timePassed = timePassed(animationTimeNanos);
+
+        if (timePassed < mDuration) {
+            mCurr = computePosition(timePassed);
+            mCurrVelocity = computeVelocity(timePassed);
+            if (mMode == FLING_MODE && Math.round(mCurr) == Math.round(mFinal)) {
+                mFinished = true;
+            }
+        } else {
+            mCurr = mFinal;
+            mCurrVelocity = 0;
+            mFinished = true;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the location at the given animation time without advancing the
+     * scroller. The time may be in the future, e.g. for predicting the
+     * position a fling will have reached by the next frame.
+     *
+     * @param animationTimeNanos The animation time in nanoseconds, in the
+     *                           {@link System#nanoTime()} time base.
+     * @return The Y offset at the given time in sub-pixel precision.
+     */
+    public float getPositionAt(long animationTimeNanos) {
+        if (mFinished) {
+            return mCurr;
+        }
+        final float timePassed = timePassed(animationTimeNanos);
+        return (timePassed < mDuration) ? computePosition(timePassed) : mFinal;
+    }
+
+    private float timePassed(long animationTimeNanos) {
+        // The frame time may slightly precede the start time of an animation
+        // started while handling input in the same frame.
+        return Math.max(0L, animationTimeNanos - mStartTimeNanos) / (float) NANOS_PER_MS;
+    }
+
+    private float computePosition(float timePassed) {
+        switch (mMode) {
+            case SCROLL_MODE: {
+                final float x = mInterpolator.getInterpolation(timePassed * mDurationReciprocal);
+                return mStart + x * (mFinal - mStart);
+            }
+            case SETTLE_MODE: {
+                return mStart + mSettleEngine.getPosition(mFinal - mStart, mStartVelocity, timePassed);
+            }
+            case FLING_MODE: {
+                final float t = timePassed * mDurationReciprocal;
+                final int index = (int) (NB_SAMPLES * t);
+                float distanceCoef = 1.f;
+                if (index < NB_SAMPLES) {
+                    final float t_inf = (float) index / NB_SAMPLES;
+                    final float d_inf = SPLINE_POSITION[index];
+                    final float d_sup = SPLINE_POSITION[index + 1];
+                    distanceCoef = d_inf + (t - t_inf) * (d_sup - d_inf) * NB_SAMPLES;
+                }
+                final float position = mStart + distanceCoef * (mFinal - mStart);
+                // Pin to mMin <= position <= mMax
+                return Math.max(mMin, Math.min(position, mMax));
+            }
+        }
+        return mFinal;
+    }
+
+    private float computeVelocity(float timePassed) {
+        if (mMode == SETTLE_MODE) {
+            return mSettleEngine.getVelocity(mFinal - mStart, mStartVelocity, timePassed);
+        }
+        final float t = timePassed * mDurationReciprocal;
+        final float coef;
+        if (mMode == FLING_MODE) {
+            final int index = (int) (NB_SAMPLES * t);
+            coef = (index < NB_SAMPLES)
+                    ? (SPLINE_POSITION[index + 1] - SPLINE_POSITION[index]) * NB_SAMPLES : 0.f;
+        } else {
+            final float dt = 1.f / NB_SAMPLES;
+            final float t2 = Math.min(t + dt, 1.f);
+            coef = (t2 > t) ? (mInterpolator.getInterpolation(t2)
+                    - mInterpolator.getInterpolation(t)) / (t2 - t) : 0.f;
+        }
+        // a fling slows down along the unpinned spline, as in Scroller
+        final float distance = (mMode == FLING_MODE) ? mSplineDistance : mFinal - mStart;
+        return coef * distance * mDurationReciprocal * 1000.0f;
+    }
+
+    /**
+     * Start scrolling by providing a starting point and the distance to travel.
+     * The scroll will use the default value of 250 milliseconds for the
+     * duration.
+     *
+     * @param startY Starting vertical scroll offset in pixels.
+     * @param dy     Vertical distance to travel.
+     */
+    public void startScroll(int startY, int dy) {
+        startScroll(startY, dy, DEFAULT_DURATION);
+    }
+
+    /**
+     * Start scrolling by providing a starting point, the distance to travel,
+     * and the duration of the scroll.
+     *
+     * @param startY   Starting vertical scroll offset in pixels.
+     * @param dy       Vertical distance to travel.
+     * @param duration Duration of the scroll in milliseconds.
+     */
+    public void startScroll(int startY, int dy, int duration) {
+        mMode = SCROLL_MODE;
+        mFinished = false;
+        mDuration = duration;
+        mDurationReciprocal = 1.0f / (float) mDuration;
+        mStartTimeNanos = currentAnimationTimeNanos();
+        mStart = mCurr = startY;
+        mFinal = startY + dy;
+        mCurrVelocity = computeVelocity(0);
+    }
+
+    /**
+     * Start settling with the given engine by providing a starting point, the
+     * distance to travel and the initial velocity. The duration is determined
+     * by the engine.
+     *
+     * @param startY   Starting vertical scroll offset in pixels.
+     * @param dy       Vertical distance to travel.
+     * @param velocity Initial velocity measured in pixels per second.
+     * @param engine   The engine computing the motion.
+     */
+    public void settle(int startY, int dy, float velocity, SettleEngine engine) {
+        mMode = SETTLE_MODE;
+        mSettleEngine = engine;
+        mStartTimeNanos = currentAnimationTimeNanos();
+        mStart = mCurr = startY;
+        mFinal = startY + dy;
+        mStartVelocity = mCurrVelocity = velocity;
+        mDuration = engine.getDuration(dy, velocity);
+        mDurationReciprocal = (mDuration > 0) ? 1.0f / mDuration : 0.f;
+        mFinished = (mDuration <= 0);
+        if (mFinished) {
+            mCurr = mFinal;
+            mCurrVelocity = 0;
+        }
+    }
+
+    /**
+     * Start scrolling based on a fling gesture. The distance travelled will
+     * depend on the initial velocity of the fling.
+     *
+     * @param startY    Starting point of the scroll.
+     * @param velocityY Initial velocity of the fling measured in pixels per second.
+     * @param minY      Minimum value. The scroller will not scroll past this point.
+     * @param maxY      Maximum value. The scroller will not scroll past this point.
+     */
+    public void fling(int startY, int velocityY, int minY, int maxY) {
+        float velocity = velocityY;
+        // Continue a scroll or fling in progress
+        if (mFlywheel && !mFinished) {
+            final float oldVelocity = mCurrVelocity;
+            if (Math.signum(velocity) == Math.signum(oldVelocity)) {
+                velocity += oldVelocity;
+            }
+        }
+        mMode = FLING_MODE;
+        mStartTimeNanos = currentAnimationTimeNanos();
+        mStart = mCurr = startY;
+        mMin = minY;
+        mMax = maxY;
+
+        if (velocity == 0) {
+            mFinal = startY;
+            mDuration = 0;
+            mCurrVelocity = 0;
+            mFinished = true;
+            return;
+        }
+
+        final float absVelocity = Math.abs(velocity);
+        mFinished = false;
+        mDuration = getSplineFlingDuration(absVelocity);
+        mDurationReciprocal = (mDuration > 0) ? 1.0f / mDuration : 0.f;
+        final double totalDistance = getSplineFlingDistance(absVelocity) * Math.signum(velocity);
+        mSplineDistance = (float) totalDistance;
+        // Pin to mMin <= mFinal <= mMax
+        mFinal = Math.max(mMin, Math.min((float) Math.round(startY + totalDistance), mMax));
+        mCurrVelocity = velocity;
+    }
+
+    private double getSplineDeceleration(float velocity) {
+        return Math.log(INFLEXION * velocity / (mFlingFriction * mPhysicalCoeff));
+    }
+
+    private int getSplineFlingDuration(float velocity) {
+        final double l = getSplineDeceleration(velocity);
+        final double decelMinusOne = DECELERATION_RATE - 1.0;
+        return (int) (1000.0 * Math.exp(l / decelMinusOne));
+    }
+
+    private double getSplineFlingDistance(float velocity) {
+        final double l = getSplineDeceleration(velocity);
+        final double decelMinusOne = DECELERATION_RATE - 1.0;
+        return mFlingFriction * mPhysicalCoeff * Math.exp(DECELERATION_RATE / decelMinusOne * l);
+    }
+
+    /**
+     * Stops the animation. Contrary to {@link #forceFinished(boolean)},
+     * aborting the animating cause the scroller to move to the final position.
+     *
+     * @see #forceFinished(boolean)
+     */
+    public void abortAnimation() {
+        mCurr = mFinal;
+        mCurrVelocity = 0;
+        mFinished = true;
+    }
+
+    private long currentAnimationTimeNanos() {
+        return mClock.currentAnimationTimeNanos();
+    }
+
+    /**
+     * Same as <code>android.view.animation.DecelerateInterpolator</code>.
+     */
+    static class DecelerateInterpolator implements Interpolator {
+        private final float mFactor;
+
+        DecelerateInterpolator(float factor) {
+            mFactor = factor;
+        }
+
+        @Override
+        public float getInterpolation(float input) {
+            if (mFactor == 1.0f) {
+                return 1.0f - (1.0f - input) * (1.0f - input);
+            }
+            return (float) (1.0f - Math.pow((1.0f - input), 2 * mFactor));
+        }
+    }
+
+    static class ViscousFluidInterpolator implements Interpolator {
+        /**
+         * Controls the viscous fluid effect (how much of it).
+         */
+        private static final float VISCOUS_FLUID_SCALE = 8.0f;
+        private static final float VISCOUS_FLUID_NORMALIZE;
+        private static final float VISCOUS_FLUID_OFFSET;
+
+        static {
+            // must be set to 1.0 (used in viscousFluid())
+            VISCOUS_FLUID_NORMALIZE = 1.0f / viscousFluid(1.0f);
+            // account for very small floating-point error
+            VISCOUS_FLUID_OFFSET = 1.0f - VISCOUS_FLUID_NORMALIZE * viscousFluid(1.0f);
+        }
+
+        private static float viscousFluid(float x) {
+            x *= VISCOUS_FLUID_SCALE;
+            if (x < 1.0f) {
+                x -= (1.0f - (float) Math.exp(-x));
+            } else {
+                float start = 0.36787944117f;   // 1/e == exp(-1)
+                x = 1.0f - (float) Math.exp(1.0f - x);
+                x = start + x * (1.0f - start);
+            }
+            return x;
+        }
+
+        @Override
+        public float getInterpolation(float input) {
+            final float interpolated = VISCOUS_FLUID_NORMALIZE * viscousFluid(input);
+            if (interpolated > 0) {
+                return interpolated + VISCOUS_FLUID_OFFSET;
+            }
+            return interpolated;
+        }
+    }
+}
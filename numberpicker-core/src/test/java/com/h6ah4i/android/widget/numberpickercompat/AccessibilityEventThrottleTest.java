@@ -0,0 +1,52 @@
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AccessibilityEventThrottleTest {
+    private static final int VIEW_ID = 2;
+    private static final int TYPE_SELECTED = 4;
+
+    @Test
+    public void fling_emitsOneEventPerIntervalAndTheSettledValue() {
+        AccessibilityEventThrottle throttle = new AccessibilityEventThrottle(200);
+
+        // a one second fling changing the value on every 16 ms frame
+        int sent = 0;
+        int requested = 0;
+        for (long time = 0; time < 1000; time += 16) {
+            requested++;
+            if (throttle.onEvent(VIEW_ID, TYPE_SELECTED, true, time)) {
+                sent++;
+            }
+        }
+        assertEquals(63, requested);
+        assertEquals(5, sent);
+
+        // the wheel settles
+        assertEquals(TYPE_SELECTED, throttle.takePendingEventType());
+        assertEquals(VIEW_ID, throttle.getPendingVirtualViewId());
+        assertEquals(AccessibilityEventThrottle.NO_PENDING_EVENT, throttle.takePendingEventType());
+    }
+
+    @Test
+    public void idle_eventsAreNotThrottled() {
+        AccessibilityEventThrottle throttle = new AccessibilityEventThrottle(200);
+        for (long time = 0; time < 100; time += 10) {
+            assertTrue(throttle.onEvent(VIEW_ID, TYPE_SELECTED, false, time));
+        }
+        assertEquals(AccessibilityEventThrottle.NO_PENDING_EVENT, throttle.takePendingEventType());
+    }
+
+    @Test
+    public void sentEvent_dropsThePendingOne() {
+        AccessibilityEventThrottle throttle = new AccessibilityEventThrottle(200);
+        assertTrue(throttle.onEvent(VIEW_ID, TYPE_SELECTED, true, 0));
+        assertFalse(throttle.onEvent(VIEW_ID, TYPE_SELECTED, true, 100));
+        assertTrue(throttle.onEvent(VIEW_ID, TYPE_SELECTED, true, 200));
+        assertEquals(AccessibilityEventThrottle.NO_PENDING_EVENT, throttle.takePendingEventType());
+    }
+}
@@ -0,0 +1,60 @@
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class FrameMonitorTest {
+    private static final long MS = 1000000L;
+    private static final long BUDGET_60HZ = 16666667L;
+
+    @Test
+    public void fling_reportsPercentilesAndFramesOverBudget() {
+        FrameMonitor monitor = new FrameMonitor();
+        monitor.start(BUDGET_60HZ);
+
+        // 100 frame intervals at 60 Hz, with one 2 frame and one 4 frame drop;
+        // percentiles are rounded up to the 0.25 ms buckets
+        long time = 0;
+        monitor.onFrame(time);
+        for (int i = 0; i < 100; i++) {
+            long interval = (i == 40) ? 3 * BUDGET_60HZ : (i == 70) ? 5 * BUDGET_60HZ : BUDGET_60HZ;
+            time += interval;
+            monitor.onFrame(time);
+            monitor.onDraw((i < 90) ? 1900000L : 5900000L);
+        }
+        FrameStats stats = monitor.finish();
+
+        assertFalse(monitor.isRunning());
+        assertEquals(100, stats.getFrameCount());
+        assertEquals(2, stats.getFramesOverBudget());
+        assertEquals(16750000L, stats.getFrameIntervalP50Nanos());
+        assertEquals(16750000L, stats.getFrameIntervalP90Nanos());
+        assertEquals(50250000L, stats.getFrameIntervalP99Nanos());
+        assertEquals(2000000L, stats.getDrawP50Nanos());
+        assertEquals(2000000L, stats.getDrawP90Nanos());
+        // capped by the max draw time
+        assertEquals(5900000L, stats.getDrawP99Nanos());
+    }
+
+    @Test
+    public void longIntervals_fallIntoTheOverflowBucket() {
+        FrameMonitor monitor = new FrameMonitor();
+        monitor.start(BUDGET_60HZ);
+        monitor.onFrame(0);
+        monitor.onFrame(500 * MS);
+        FrameStats stats = monitor.finish();
+        assertEquals(500 * MS, stats.getFrameIntervalP50Nanos());
+        assertEquals(1, stats.getFramesOverBudget());
+    }
+
+    @Test
+    public void singleFrame_reportsNothing() {
+        FrameMonitor monitor = new FrameMonitor();
+        monitor.start(BUDGET_60HZ);
+        monitor.onFrame(0);
+        assertNull(monitor.finish());
+    }
+}
@@ -0,0 +1,96 @@
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpringSettleEngineTest {
+    private static final long START_TIME = 1000000000L;
+    private static final long NANOS_PER_MS = 1000000L;
+    private static final long FRAME_TIME = 16666667L;
+    private static final int[] OFFSETS = {10, 50, 100};
+    private static final float INCOMING_VELOCITY = 50.0f;
+    private static final int MIN_TIME_TO_REST = 150;
+    private static final int MAX_TIME_TO_REST = 250;
+    // same as NumberPicker for an item height of 60 px
+    private static final float HANDOFF_VELOCITY = 60 * 4;
+
+    private static class ManualClock implements WheelScroller.AnimationClock {
+        long mTimeNanos = START_TIME;
+
+        @Override
+        public long currentAnimationTimeNanos() {
+            return mTimeNanos;
+        }
+    }
+
+    private static long timeToRestMillis(int offset, float velocity) {
+        final ManualClock clock = new ManualClock();
+        final WheelScroller scroller = new WheelScroller(2.0f, null, false, clock);
+        scroller.settle(0, offset, velocity, new SpringSettleEngine());
+        while (scroller.computeScrollOffset(clock.mTimeNanos) && !scroller.isFinished()) {
+            clock.mTimeNanos += NANOS_PER_MS;
+        }
+        assertEquals(offset, scroller.getCurrY());
+        return (clock.mTimeNanos - START_TIME) / NANOS_PER_MS;
+    }
+
+    private static void assertTimeToRest(int offset, float velocity) {
+        final long time = timeToRestMillis(offset, velocity);
+        final String message = "offset=" + offset + ", velocity=" + velocity + ", time=" + time;
+        assertTrue(message, time >= MIN_TIME_TO_REST);
+        assertTrue(message, time <= MAX_TIME_TO_REST);
+    }
+
+    @Test
+    public void timeToRest_fromRest() {
+        for (int offset : OFFSETS) {
+            assertTimeToRest(offset, 0);
+            assertTimeToRest(-offset, 0);
+        }
+    }
+
+    @Test
+    public void timeToRest_withIncomingVelocity() {
+        for (int offset : OFFSETS) {
+            // toward and away from the rest position
+            assertTimeToRest(offset, INCOMING_VELOCITY);
+            assertTimeToRest(offset, -INCOMING_VELOCITY);
+            assertTimeToRest(-offset, INCOMING_VELOCITY);
+            assertTimeToRest(-offset, -INCOMING_VELOCITY);
+        }
+    }
+
+    @Test
+    public void handOff_continuousPositionAndVelocity() {
+        final ManualClock clock = new ManualClock();
+        final WheelScroller fling = new WheelScroller(2.0f, null, true, clock);
+        final WheelScroller settle = new WheelScroller(2.0f, null, true, clock);
+        fling.fling(0, 3000, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        // run the fling until it slows down enough, as NumberPicker does
+        do {
+            clock.mTimeNanos += FRAME_TIME;
+            assertTrue(fling.computeScrollOffset(clock.mTimeNanos));
+            assertFalse(fling.isFinished());
+        } while (fling.getCurrVelocity() >= HANDOFF_VELOCITY);
+
+        // hand off at the same frame time, as handOffFlingToSettleEngine() does
+        final int position = fling.getCurrY();
+        final float velocity = fling.getCurrVelocity();
+        final int target = Math.round(fling.getFinalY() / 60.0f) * 60;
+        settle.settle(position, target - position, velocity, new SpringSettleEngine());
+        assertTrue(settle.computeScrollOffset(clock.mTimeNanos));
+        assertEquals(position, settle.getCurrY());
+        assertEquals(velocity, settle.getCurrVelocity(), 0.001f);
+
+        // the next frame moves on at about the fling velocity
+        final float frameMillis = FRAME_TIME / (float) NANOS_PER_MS;
+        clock.mTimeNanos += FRAME_TIME;
+        assertTrue(settle.computeScrollOffset(clock.mTimeNanos));
+        assertEquals(position + velocity * frameMillis / 1000.0f,
+                settle.getCurrPosition(), 1.0f);
+    }
+}
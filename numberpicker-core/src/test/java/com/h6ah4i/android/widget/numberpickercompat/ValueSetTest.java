@@ -0,0 +1,66 @@
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ValueSetTest {
+    @Test
+    public void stepped_mapsIndicesAndValues() {
+        ValueSet set = ValueSet.stepped(0, 50, 15);
+        assertEquals(4, set.size());
+        assertEquals(45, set.valueAt(3));
+        assertEquals(2, set.indexOf(30));
+        assertEquals(-3, set.indexOf(20));
+        assertEquals(-1, set.indexOf(-5));
+        assertEquals(-5, set.indexOf(50));
+    }
+
+    @Test
+    public void stepped_fullIntRange() {
+        ValueSet set = ValueSet.range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        assertEquals(1L << 32, set.size());
+        assertEquals(Integer.MAX_VALUE, set.valueAt(set.size() - 1));
+        assertEquals(set.size() - 1, set.indexOf(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void indexOf_matchesBinarySearch() {
+        Random random = new Random(0x5eedL);
+        for (int n = 0; n < 1000; n++) {
+            int min = random.nextInt(200) - 100;
+            int step = random.nextInt(7) + 1;
+            int max = min + random.nextInt(100);
+            ValueSet stepped = ValueSet.stepped(min, max, step);
+            int[] values = new int[(int) stepped.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = stepped.valueAt(i);
+            }
+            ValueSet sorted = ValueSet.of(values);
+            for (int value = min - 10; value <= max + 10; value++) {
+                long expected = Arrays.binarySearch(values, value);
+                assertEquals(expected, stepped.indexOf(value));
+                assertEquals(expected, sorted.indexOf(value));
+            }
+        }
+    }
+
+    @Test
+    public void nearestIndexOf_prefersSmallerValueOnTie() {
+        ValueSet set = ValueSet.of(35, 36, 38, 42);
+        assertEquals(0, set.nearestIndexOf(Long.MIN_VALUE));
+        assertEquals(1, set.nearestIndexOf(37));
+        assertEquals(2, set.nearestIndexOf(39));
+        assertEquals(2, set.nearestIndexOf(40));
+        assertEquals(3, set.nearestIndexOf(41));
+        assertEquals(3, set.nearestIndexOf(Long.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_rejectsUnsortedValues() {
+        ValueSet.of(1, 3, 2);
+    }
+}
@@ -0,0 +1,210 @@
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Property tests of {@link WheelMath} against a {@link BigInteger} reference,
+ * over random ranges biased towards the ends of the int and long ranges.
+ */
+public class WheelMathTest {
+    private static final int ITERATIONS = 100000;
+
+    private final Random mRandom = new Random(0x5eedL);
+
+    @Test
+    public void wrap_matchesReference() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] range = randomRange(i);
+            long value = randomLong();
+            long actual = WheelMath.wrap(value, range[0], range[1]);
+            assertInRange(actual, range);
+            assertEquals(referenceAdd(range[0], big(value).subtract(big(range[0])), range, true), actual);
+        }
+    }
+
+    @Test
+    public void wrap_fullIntRange() {
+        assertEquals(Integer.MIN_VALUE,
+                WheelMath.wrap((long) Integer.MAX_VALUE + 1, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE,
+                WheelMath.wrap((long) Integer.MIN_VALUE - 1, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        // the off-by-one of the modulo by (max - min) instead of the value count
+        assertEquals(0, WheelMath.wrap(10, 0, 9));
+        assertEquals(9, WheelMath.wrap(-1, 0, 9));
+        assertEquals(0, WheelMath.wrap(20, 0, 9));
+    }
+
+    @Test
+    public void nextAndPrevious_areInverse() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] range = randomRange(i);
+            long value = randomValueIn(range);
+            long next = WheelMath.next(value, range[0], range[1], true);
+            long previous = WheelMath.previous(value, range[0], range[1], true);
+            assertInRange(next, range);
+            assertInRange(previous, range);
+            assertEquals(value, WheelMath.previous(next, range[0], range[1], true));
+            assertEquals(value, WheelMath.next(previous, range[0], range[1], true));
+            assertEquals(referenceAdd(value, BigInteger.ONE, range, true), next);
+            assertEquals(referenceAdd(value, BigInteger.ONE.negate(), range, true), previous);
+        }
+    }
+
+    @Test
+    public void add_matchesReference() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] range = randomRange(i);
+            long value = randomValueIn(range);
+            long steps = (i % 2 == 0) ? randomLong() : mRandom.nextInt(41) - 20;
+            boolean wrap = mRandom.nextBoolean();
+            long actual = WheelMath.add(value, steps, range[0], range[1], wrap);
+            assertInRange(actual, range);
+            assertEquals(referenceAdd(value, big(steps), range, wrap), actual);
+        }
+    }
+
+    @Test
+    public void distance_isShortestPath() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] range = randomRange(i);
+            long from = randomValueIn(range);
+            long to = (i % 3 == 0) ? WheelMath.add(from, mRandom.nextInt(7) - 3, range[0], range[1], true)
+                    : randomValueIn(range);
+            boolean wrap = mRandom.nextBoolean();
+            long distance = WheelMath.distance(from, to, range[0], range[1], wrap);
+
+            BigInteger expected = big(to).subtract(big(from));
+            if (wrap) {
+                BigInteger count = big(range[1]).subtract(big(range[0])).add(BigInteger.ONE);
+                BigInteger ahead = expected.mod(count);
+                BigInteger behind = count.subtract(ahead).mod(count);
+                expected = (ahead.compareTo(behind) <= 0) ? ahead : behind.negate();
+            }
+            assertEquals(saturate(expected), distance);
+            if (expected.bitLength() < 64) {
+                assertEquals(to, WheelMath.add(from, distance, range[0], range[1], wrap));
+            }
+        }
+    }
+
+    @Test
+    public void isCountGreaterThan_matchesReference() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] range = randomRange(i);
+            int count = mRandom.nextInt(8);
+            BigInteger actualCount = big(range[1]).subtract(big(range[0])).add(BigInteger.ONE);
+            assertEquals(actualCount.compareTo(BigInteger.valueOf(count)) > 0,
+                    WheelMath.isCountGreaterThan(range[0], range[1], count));
+        }
+    }
+
+    @Test
+    public void remainderUnsigned_matchesReference() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            long dividend = randomLong();
+            long divisor = randomLong();
+            if (divisor == 0) {
+                continue;
+            }
+            assertEquals(unsigned(dividend).mod(unsigned(divisor)).longValue(),
+                    WheelMath.remainderUnsigned(dividend, divisor));
+        }
+    }
+
+    private long[] randomRange(int i) {
+        long a;
+        long b;
+        switch (i % 4) {
+            case 0:
+                // int range, like the ones of NumberPicker
+                a = randomInt();
+                b = randomInt();
+                break;
+            case 1:
+                // small range
+                a = randomLong();
+                b = a + mRandom.nextInt(5);
+                if (b < a) {
+                    b = Long.MAX_VALUE;
+                }
+                break;
+            default:
+                a = randomLong();
+                b = randomLong();
+                break;
+        }
+        return new long[]{Math.min(a, b), Math.max(a, b)};
+    }
+
+    private long randomValueIn(long[] range) {
+        switch (mRandom.nextInt(4)) {
+            case 0:
+                return range[0];
+            case 1:
+                return range[1];
+            default:
+                BigInteger count = big(range[1]).subtract(big(range[0])).add(BigInteger.ONE);
+                BigInteger offset = new BigInteger(65, mRandom).mod(count);
+                return big(range[0]).add(offset).longValue();
+        }
+    }
+
+    private int randomInt() {
+        switch (mRandom.nextInt(4)) {
+            case 0:
+                return Integer.MIN_VALUE + mRandom.nextInt(3);
+            case 1:
+                return Integer.MAX_VALUE - mRandom.nextInt(3);
+            default:
+                return mRandom.nextInt();
+        }
+    }
+
+    private long randomLong() {
+        switch (mRandom.nextInt(5)) {
+            case 0:
+                return Long.MIN_VALUE + mRandom.nextInt(3);
+            case 1:
+                return Long.MAX_VALUE - mRandom.nextInt(3);
+            case 2:
+                return randomInt();
+            default:
+                return mRandom.nextLong();
+        }
+    }
+
+    private static long referenceAdd(long value, BigInteger steps, long[] range, boolean wrap) {
+        BigInteger min = big(range[0]);
+        BigInteger max = big(range[1]);
+        BigInteger target = big(value).add(steps);
+        if (wrap) {
+            BigInteger count = max.subtract(min).add(BigInteger.ONE);
+            return min.add(target.subtract(min).mod(count)).longValue();
+        }
+        return target.max(min).min(max).longValue();
+    }
+
+    private static void assertInRange(long value, long[] range) {
+        assertTrue(value + " not in [" + range[0] + ", " + range[1] + "]",
+                value >= range[0] && value <= range[1]);
+    }
+
+    private static long saturate(BigInteger value) {
+        return value.max(big(Long.MIN_VALUE)).min(big(Long.MAX_VALUE)).longValue();
+    }
+
+    private static BigInteger big(long value) {
+        return BigInteger.valueOf(value);
+    }
+
+    private static BigInteger unsigned(long value) {
+        BigInteger v = BigInteger.valueOf(value);
+        return (value < 0) ? v.add(BigInteger.ONE.shiftLeft(64)) : v;
+    }
+}
@@ -0,0 +1,146 @@
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WheelModelTest {
+    @Test
+    public void fillSelectorIndices_wrapsOnlyIfRangeIsLargerThanWheel() {
+        WheelModel wheel = new WheelModel();
+        wheel.setMinValue(0);
+        wheel.setMaxValue(9);
+        long[] indices = new long[5];
+
+        wheel.updateWrapping(indices.length);
+        assertTrue(wheel.isWrapping());
+        wheel.fillSelectorIndices(indices, 0, 2);
+        assertArrayEquals(new long[]{8, 9, 0, 1, 2}, indices);
+
+        wheel.setMaxValue(3);
+        wheel.updateWrapping(indices.length);
+        assertFalse(wheel.isWrapping());
+        wheel.fillSelectorIndices(indices, 0, 2);
+        assertArrayEquals(new long[]{0, 0, 0, 1, 2}, indices);
+        assertTrue(wheel.isSlotEmpty(0, -1));
+        assertFalse(wheel.isSlotEmpty(0, 2));
+        assertTrue(wheel.isSlotEmpty(3, 1));
+    }
+
+    @Test
+    public void shiftSelectorIndices_matchesValueAfterSteps() {
+        WheelModel[] wheels = new WheelModel[6];
+        for (int i = 0; i < wheels.length; i++) {
+            wheels[i] = new WheelModel();
+        }
+        wheels[0].setMinValue(0);
+        wheels[0].setMaxValue(11);
+        wheels[1].setMinValue(-3);
+        wheels[1].setMaxValue(20);
+        wheels[1].setWrapPreferred(false);
+        wheels[2].setValueSet(ValueSet.stepped(0, 59, 15));
+        wheels[3].setValueSet(ValueSet.of(1, 2, 3, 5, 8, 13, 21, 34));
+        wheels[4].setValueSet(ValueSet.of(1, 2, 3, 5, 8, 13, 21, 34));
+        wheels[4].setWrapPreferred(false);
+        wheels[5].setUnbounded(true);
+
+        final int middle = 2;
+        for (WheelModel wheel : wheels) {
+            wheel.updateWrapping(5);
+            long[] indices = new long[5];
+            long start = wheel.isUnbounded() ? Long.MAX_VALUE - 20 : wheel.getMinValue();
+            long current = start;
+            wheel.fillSelectorIndices(indices, current, middle);
+            for (int step = 0; step < 40 && wheel.hasNextValue(current); step++) {
+                wheel.incrementSelectorIndices(indices);
+                current = wheel.getValueAfterSteps(current, 1);
+                assertSlots(wheel, indices, current, middle);
+            }
+            for (int step = 0; step < 40 && wheel.hasPreviousValue(current); step++) {
+                wheel.decrementSelectorIndices(indices);
+                current = wheel.getValueAfterSteps(current, -1);
+                assertSlots(wheel, indices, current, middle);
+            }
+        }
+    }
+
+    private static void assertSlots(WheelModel wheel, long[] indices, long current, int middle) {
+        for (int i = 0; i < indices.length; i++) {
+            assertEquals(wheel.getValueAfterSteps(current, i - middle), wheel.toValue(indices[i]));
+        }
+    }
+
+    @Test
+    public void valueSet_movesBetweenValues() {
+        WheelModel wheel = new WheelModel();
+        wheel.setValueSet(ValueSet.stepped(0, 50, 15));
+        wheel.setWrapPreferred(false);
+        wheel.updateWrapping(5);
+        assertEquals(0, wheel.getMinValue());
+        assertEquals(45, wheel.getMaxValue());
+        assertEquals(30, wheel.getValueAfterSteps(14, 1));
+        assertEquals(45, wheel.getValueAfterSteps(0, 10));
+        assertEquals(45, wheel.getNearestValue(1000));
+        assertEquals(2, wheel.getIndexOf(30));
+        assertFalse(wheel.hasNextValue(45));
+        assertTrue(wheel.hasPreviousValue(45));
+    }
+
+    @Test
+    public void distance_saturatesOverFullLongRange() {
+        WheelModel wheel = new WheelModel();
+        wheel.setMinValue(Long.MIN_VALUE);
+        wheel.setMaxValue(Long.MAX_VALUE);
+        wheel.setWrapPreferred(false);
+        wheel.updateWrapping(5);
+        assertEquals(Long.MIN_VALUE, wheel.distance(Long.MAX_VALUE, Long.MIN_VALUE));
+        assertEquals(Long.MIN_VALUE, wheel.distance(0, Long.MIN_VALUE));
+        assertEquals(Long.MAX_VALUE, wheel.distance(Long.MIN_VALUE, Long.MAX_VALUE));
+        // the limit of the animated steps must hold for the saturated distance
+        assertEquals(-8, WheelMath.clamp(wheel.distance(Long.MAX_VALUE, Long.MIN_VALUE), -8, 8));
+        assertEquals(-6, wheel.distance(3, -3));
+    }
+
+    @Test
+    public void limitSteps_keepsDirection() {
+        WheelModel wheel = new WheelModel();
+        wheel.setMinValue(1);
+        wheel.setMaxValue(12);
+        wheel.updateWrapping(5);
+        // a page of 10 items on an hour wheel goes forward, not 2 items back
+        assertEquals(10, wheel.limitSteps(1, 10));
+        assertEquals(11, wheel.limitSteps(1, 30));
+        assertEquals(-11, wheel.limitSteps(1, -30));
+
+        wheel.setWrapPreferred(false);
+        wheel.updateWrapping(5);
+        assertEquals(1, wheel.limitSteps(11, 10));
+        assertEquals(-10, wheel.limitSteps(11, -30));
+    }
+
+    @Test
+    public void unbounded_neverWraps() {
+        WheelModel wheel = new WheelModel();
+        wheel.setUnbounded(true);
+        wheel.updateWrapping(5);
+        assertFalse(wheel.isWrapping());
+        assertEquals(Long.MAX_VALUE, wheel.getValueAfterSteps(Long.MAX_VALUE - 1, 5));
+        assertTrue(wheel.isInRange(-123456789L));
+        assertTrue(wheel.acceptsTypedNumber("-"));
+        assertFalse(wheel.acceptsTypedNumber("99999999999999999999"));
+    }
+
+    @Test
+    public void acceptsTypedNumber_rejectsPastMax() {
+        WheelModel wheel = new WheelModel();
+        wheel.setMinValue(10);
+        wheel.setMaxValue(59);
+        assertTrue(wheel.acceptsTypedNumber("5"));
+        assertTrue(wheel.acceptsTypedNumber("59"));
+        assertFalse(wheel.acceptsTypedNumber("60"));
+        assertFalse(wheel.acceptsTypedNumber("005"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.h6ah4i.android.widget.numberpickercompat;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WheelScrollerTest {
+    private static final long START_TIME = 1000000000L;
+    private static final long NANOS_PER_MS = 1000000L;
+
+    private static WheelScroller createScroller() {
+        return new WheelScroller(2.0f, null, false, new WheelScroller.AnimationClock() {
+            @Override
+            public long currentAnimationTimeNanos() {
+                return START_TIME;
+            }
+        });
+    }
+
+    @Test
+    public void fling_pinnedVelocityFollowsSpline() {
+        WheelScroller free = createScroller();
+        free.fling(0, 4000, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        WheelScroller pinned = createScroller();
+        pinned.fling(0, 4000, Integer.MIN_VALUE, free.getFinalY() / 4);
+        assertEquals(free.getFinalY() / 4, pinned.getFinalY());
+
+        final long time = START_TIME + free.getDuration() / 10 * NANOS_PER_MS;
+        assertTrue(free.computeScrollOffset(time));
+        assertTrue(pinned.computeScrollOffset(time));
+        assertTrue(free.getCurrVelocity() > 0);
+        assertEquals(free.getCurrVelocity(), pinned.getCurrVelocity(), 0.001f);
+    }
+}